@@ -33,6 +33,9 @@ class PlatformMetrics extends Equatable {
   final double userGrowthRate;
   final double revenueGrowthRate;
 
+  /// When the server computed these metrics (they are served from a snapshot)
+  final DateTime? generatedAt;
+
   const PlatformMetrics({
     required this.totalUsers,
     required this.totalShopOwners,
@@ -53,6 +56,7 @@ class PlatformMetrics extends Equatable {
     required this.totalTransactions,
     required this.userGrowthRate,
     required this.revenueGrowthRate,
+    this.generatedAt,
   });
 
   factory PlatformMetrics.fromJson(Map<String, dynamic> json) {
@@ -76,6 +80,9 @@ class PlatformMetrics extends Equatable {
       totalTransactions: (json['totalTransactions'] as num).toInt(),
       userGrowthRate: (json['userGrowthRate'] as num).toDouble(),
       revenueGrowthRate: (json['revenueGrowthRate'] as num).toDouble(),
+      generatedAt: json['generatedAt'] != null
+          ? DateTime.parse(json['generatedAt'] as String)
+          : null,
     );
   }
 
@@ -84,5 +91,6 @@ class PlatformMetrics extends Equatable {
         totalUsers,
         totalShops,
         totalGMV,
+        generatedAt,
       ];
 }
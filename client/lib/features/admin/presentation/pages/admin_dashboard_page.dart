@@ -246,6 +246,11 @@ class _AdminDashboardPageState extends State<AdminDashboardPage> {
                 style: TextStyle(fontSize: 32, fontWeight: FontWeight.bold),
               ),
               const Spacer(),
+              if (metrics.generatedAt != null)
+                Text(
+                  'Updated ${DateFormat('HH:mm').format(metrics.generatedAt!)}',
+                  style: const TextStyle(color: AppColors.neutral500),
+                ),
               IconButton(
                 icon: const Icon(Icons.refresh),
                 onPressed: () {
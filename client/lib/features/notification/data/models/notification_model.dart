@@ -113,3 +113,22 @@ class NotificationModel {
     );
   }
 }
+
+/// One page of notifications, newest first.
+class NotificationPage {
+  final List<NotificationModel> items;
+
+  /// Token for the next page; null on the last page.
+  final String? nextCursor;
+
+  const NotificationPage({required this.items, this.nextCursor});
+
+  factory NotificationPage.fromJson(Map<String, dynamic> json) {
+    return NotificationPage(
+      items: (json['items'] as List<dynamic>? ?? [])
+          .map((e) => NotificationModel.fromJson(e as Map<String, dynamic>))
+          .toList(),
+      nextCursor: json['nextCursor'] as String?,
+    );
+  }
+}
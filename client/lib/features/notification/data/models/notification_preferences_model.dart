@@ -6,6 +6,7 @@ class NotificationPreferencesModel {
   final bool weeklySummaryEnabled;
   final bool agreementUpdatesEnabled;
   final bool salesNotificationsEnabled;
+  final bool saleDigestEnabled;
   final bool expiryRemindersEnabled;
   final int expiryReminderDays;
   final bool payoutNotificationsEnabled;
@@ -17,6 +18,7 @@ class NotificationPreferencesModel {
     required this.weeklySummaryEnabled,
     required this.agreementUpdatesEnabled,
     required this.salesNotificationsEnabled,
+    required this.saleDigestEnabled,
     required this.expiryRemindersEnabled,
     required this.expiryReminderDays,
     required this.payoutNotificationsEnabled,
@@ -31,6 +33,7 @@ class NotificationPreferencesModel {
       agreementUpdatesEnabled: json['agreementUpdatesEnabled'] as bool? ?? true,
       salesNotificationsEnabled:
           json['salesNotificationsEnabled'] as bool? ?? true,
+      saleDigestEnabled: json['saleDigestEnabled'] as bool? ?? true,
       expiryRemindersEnabled: json['expiryRemindersEnabled'] as bool? ?? true,
       expiryReminderDays: json['expiryReminderDays'] as int? ?? 7,
       payoutNotificationsEnabled:
@@ -46,6 +49,7 @@ class NotificationPreferencesModel {
       'weeklySummaryEnabled': weeklySummaryEnabled,
       'agreementUpdatesEnabled': agreementUpdatesEnabled,
       'salesNotificationsEnabled': salesNotificationsEnabled,
+      'saleDigestEnabled': saleDigestEnabled,
       'expiryRemindersEnabled': expiryRemindersEnabled,
       'expiryReminderDays': expiryReminderDays,
       'payoutNotificationsEnabled': payoutNotificationsEnabled,
@@ -59,6 +63,7 @@ class NotificationPreferencesModel {
     bool? weeklySummaryEnabled,
     bool? agreementUpdatesEnabled,
     bool? salesNotificationsEnabled,
+    bool? saleDigestEnabled,
     bool? expiryRemindersEnabled,
     int? expiryReminderDays,
     bool? payoutNotificationsEnabled,
@@ -72,6 +77,7 @@ class NotificationPreferencesModel {
           agreementUpdatesEnabled ?? this.agreementUpdatesEnabled,
       salesNotificationsEnabled:
           salesNotificationsEnabled ?? this.salesNotificationsEnabled,
+      saleDigestEnabled: saleDigestEnabled ?? this.saleDigestEnabled,
       expiryRemindersEnabled:
           expiryRemindersEnabled ?? this.expiryRemindersEnabled,
       expiryReminderDays: expiryReminderDays ?? this.expiryReminderDays,
@@ -89,6 +95,7 @@ class NotificationPreferencesModel {
       weeklySummaryEnabled: false,
       agreementUpdatesEnabled: true,
       salesNotificationsEnabled: true,
+      saleDigestEnabled: true,
       expiryRemindersEnabled: true,
       expiryReminderDays: 7,
       payoutNotificationsEnabled: true,
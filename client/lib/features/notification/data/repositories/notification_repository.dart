@@ -9,12 +9,14 @@ class NotificationRepository {
 
   NotificationRepository(this._dio);
 
-  /// Get all notifications for the current user.
-  Future<List<NotificationModel>> getNotifications() async {
-    final response = await _dio.get<List<dynamic>>('/notifications');
-    return (response.data ?? [])
-        .map((json) => NotificationModel.fromJson(json as Map<String, dynamic>))
-        .toList();
+  /// Get a page of notifications for the current user, newest first.
+  /// Pass the previous page's [NotificationPage.nextCursor] to continue.
+  Future<NotificationPage> getNotifications({String? cursor}) async {
+    final response = await _dio.get<Map<String, dynamic>>(
+      '/notifications',
+      queryParameters: {if (cursor != null) 'cursor': cursor},
+    );
+    return NotificationPage.fromJson(response.data ?? {});
   }
 
   /// Get count of unread notifications.
@@ -10,8 +10,13 @@ part 'notification_state.dart';
 class NotificationBloc extends Bloc<NotificationEvent, NotificationState> {
   final NotificationRepository _repository;
 
+  /// Cursor for the next page; null when everything is loaded.
+  String? _nextCursor;
+  bool _loadingMore = false;
+
   NotificationBloc(this._repository) : super(const NotificationInitial()) {
     on<LoadNotifications>(_onLoadNotifications);
+    on<LoadMoreNotifications>(_onLoadMoreNotifications);
     on<LoadUnreadCount>(_onLoadUnreadCount);
     on<MarkNotificationAsRead>(_onMarkAsRead);
     on<MarkAllNotificationsAsRead>(_onMarkAllAsRead);
@@ -19,6 +24,7 @@ class NotificationBloc extends Bloc<NotificationEvent, NotificationState> {
   }
 
   void _onReset(ResetNotifications event, Emitter<NotificationState> emit) {
+    _nextCursor = null;
     emit(const NotificationInitial());
   }
 
@@ -34,11 +40,13 @@ class NotificationBloc extends Bloc<NotificationEvent, NotificationState> {
     );
 
     try {
-      final notifications = await _repository.getNotifications();
-      final unreadCount = notifications.where((n) => !n.isRead).length;
+      final page = await _repository.getNotifications();
+      // Only the first page is loaded, so the count comes from the server
+      final unreadCount = await _repository.getUnreadCount();
+      _nextCursor = page.nextCursor;
       emit(
         NotificationLoaded(
-          notifications: notifications,
+          notifications: page.items,
           unreadCount: unreadCount,
         ),
       );
@@ -53,6 +61,36 @@ class NotificationBloc extends Bloc<NotificationEvent, NotificationState> {
     }
   }
 
+  Future<void> _onLoadMoreNotifications(
+    LoadMoreNotifications event,
+    Emitter<NotificationState> emit,
+  ) async {
+    final cursor = _nextCursor;
+    if (cursor == null || _loadingMore) return;
+
+    _loadingMore = true;
+    try {
+      final page = await _repository.getNotifications(cursor: cursor);
+      _nextCursor = page.nextCursor;
+      emit(
+        NotificationLoaded(
+          notifications: [...state.notifications, ...page.items],
+          unreadCount: state.unreadCount,
+        ),
+      );
+    } catch (e) {
+      emit(
+        NotificationError(
+          message: e.toString(),
+          notifications: state.notifications,
+          unreadCount: state.unreadCount,
+        ),
+      );
+    } finally {
+      _loadingMore = false;
+    }
+  }
+
   Future<void> _onLoadUnreadCount(
     LoadUnreadCount event,
     Emitter<NotificationState> emit,
@@ -73,6 +111,9 @@ class NotificationBloc extends Bloc<NotificationEvent, NotificationState> {
       await _repository.markAsRead(event.notificationId);
 
       // Update local state
+      final wasUnread = state.notifications.any(
+        (n) => n.id == event.notificationId && !n.isRead,
+      );
       final updated = state.notifications.map((n) {
         if (n.id == event.notificationId) {
           return n.copyWith(isRead: true, readAt: DateTime.now());
@@ -83,7 +124,9 @@ class NotificationBloc extends Bloc<NotificationEvent, NotificationState> {
       emit(
         state.copyWith(
           notifications: updated,
-          unreadCount: updated.where((n) => !n.isRead).length,
+          unreadCount: wasUnread && state.unreadCount > 0
+              ? state.unreadCount - 1
+              : state.unreadCount,
         ),
       );
     } catch (e) {
@@ -3,9 +3,12 @@ part of 'notification_bloc.dart';
 /// Base class for notification events.
 sealed class NotificationEvent {}
 
-/// Load all notifications for the current user.
+/// Load the first page of notifications for the current user.
 class LoadNotifications extends NotificationEvent {}
 
+/// Append the next page of notifications, if there is one.
+class LoadMoreNotifications extends NotificationEvent {}
+
 /// Get count of unread notifications (lightweight for polling).
 class LoadUnreadCount extends NotificationEvent {}
 
@@ -178,6 +178,15 @@ class _NotificationSettingsPageState extends State<NotificationSettingsPage> {
             () => prefs.copyWith(salesNotificationsEnabled: value),
           ),
         ),
+        if (prefs.salesNotificationsEnabled)
+          SwitchListTile(
+            title: const Text('Gabungkan Penjualan Harian'),
+            subtitle: const Text('Satu notifikasi per produk setiap hari'),
+            value: prefs.saleDigestEnabled,
+            onChanged: (value) => _updatePreference(
+              () => prefs.copyWith(saleDigestEnabled: value),
+            ),
+          ),
         const Divider(),
 
         // Expiry Notifications
@@ -58,7 +58,8 @@ void main() {
         build: () {
           when(
             () => mockRepository.getNotifications(),
-          ).thenAnswer((_) async => testNotifications);
+          ).thenAnswer((_) async => NotificationPage(items: testNotifications));
+          when(() => mockRepository.getUnreadCount()).thenAnswer((_) async => 1);
           return bloc;
         },
         act: (bloc) => bloc.add(LoadNotifications()),
@@ -93,6 +94,47 @@ void main() {
       );
     });
 
+    group('LoadMoreNotifications', () {
+      blocTest<NotificationBloc, NotificationState>(
+        'appends the next page using the cursor',
+        build: () {
+          when(() => mockRepository.getNotifications()).thenAnswer(
+            (_) async => NotificationPage(
+              items: [testNotifications.first],
+              nextCursor: 'cursor-1',
+            ),
+          );
+          when(
+            () => mockRepository.getNotifications(cursor: 'cursor-1'),
+          ).thenAnswer(
+            (_) async => NotificationPage(items: [testNotifications.last]),
+          );
+          when(() => mockRepository.getUnreadCount()).thenAnswer((_) async => 1);
+          return bloc;
+        },
+        act: (bloc) async {
+          bloc.add(LoadNotifications());
+          await Future<void>.delayed(Duration.zero);
+          bloc.add(LoadMoreNotifications());
+          await Future<void>.delayed(Duration.zero);
+          // Last page reached; no further request
+          bloc.add(LoadMoreNotifications());
+        },
+        expect: () => [
+          isA<NotificationLoading>(),
+          isA<NotificationLoaded>()
+              .having((s) => s.notifications.length, 'notifications.length', 1),
+          isA<NotificationLoaded>()
+              .having((s) => s.notifications.length, 'notifications.length', 2),
+        ],
+        verify: (_) {
+          verify(
+            () => mockRepository.getNotifications(cursor: 'cursor-1'),
+          ).called(1);
+        },
+      );
+    });
+
     group('LoadUnreadCount', () {
       blocTest<NotificationBloc, NotificationState>(
         'updates unread count on success',
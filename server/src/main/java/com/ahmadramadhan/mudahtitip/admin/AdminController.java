@@ -5,8 +5,8 @@ import com.ahmadramadhan.mudahtitip.auth.UserRole;
 import com.ahmadramadhan.mudahtitip.common.config.ApiV1Controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -34,15 +34,18 @@ public class AdminController {
      * 
      * @param role     Filter by user role (optional)
      * @param status   Filter by user status (optional)
+     * @param afterId  Return users after this ID, in ID order and without a
+     *                 total (optional, for deep pages)
      * @param pageable Pagination parameters
-     * @return Page of users
+     * @return Page of users, or a slice when {@code afterId} is given
      */
     @GetMapping("/users")
-    public ResponseEntity<Page<UserAdminDto>> getAllUsers(
+    public ResponseEntity<Slice<UserAdminDto>> getAllUsers(
             @RequestParam(required = false) UserRole role,
             @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long afterId,
             Pageable pageable) {
-        return ResponseEntity.ok(adminService.getAllUsers(role, status, pageable));
+        return ResponseEntity.ok(adminService.getAllUsers(role, status, afterId, pageable));
     }
 
     /**
@@ -106,14 +109,17 @@ public class AdminController {
      * Get all shops with optional filtering.
      * 
      * @param verified Filter by verification status (optional)
+     * @param afterId  Return shops after this ID, in ID order and without a
+     *                 total (optional, for deep pages)
      * @param pageable Pagination parameters
-     * @return Page of shops
+     * @return Page of shops, or a slice when {@code afterId} is given
      */
     @GetMapping("/shops")
-    public ResponseEntity<Page<ShopAdminDto>> getAllShops(
+    public ResponseEntity<Slice<ShopAdminDto>> getAllShops(
             @RequestParam(required = false) Boolean verified,
+            @RequestParam(required = false) Long afterId,
             Pageable pageable) {
-        return ResponseEntity.ok(adminService.getAllShops(verified, pageable));
+        return ResponseEntity.ok(adminService.getAllShops(verified, afterId, pageable));
     }
 
     /**
@@ -5,23 +5,31 @@ import com.ahmadramadhan.mudahtitip.auth.User;
 import com.ahmadramadhan.mudahtitip.auth.UserRepository;
 import com.ahmadramadhan.mudahtitip.auth.UserRole;
 import com.ahmadramadhan.mudahtitip.auth.UserStatus;
+import com.ahmadramadhan.mudahtitip.common.security.PrincipalCache;
 import com.ahmadramadhan.mudahtitip.consignment.ConsignmentRepository;
-import com.ahmadramadhan.mudahtitip.consignment.ConsignmentStatus;
+import com.ahmadramadhan.mudahtitip.consignment.dto.OwnerConsignmentCount;
+import com.ahmadramadhan.mudahtitip.consignment.dto.ShopConsignmentCount;
 import com.ahmadramadhan.mudahtitip.product.ProductRepository;
+import com.ahmadramadhan.mudahtitip.product.dto.OwnerProductCount;
 import com.ahmadramadhan.mudahtitip.shop.Shop;
 import com.ahmadramadhan.mudahtitip.shop.ShopRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -32,47 +40,37 @@ import java.util.stream.Collectors;
 @Slf4j
 public class AdminService {
 
+    private static final Sort ID_ORDER = Sort.by("id");
+
     private final UserRepository userRepository;
     private final ShopRepository shopRepository;
     private final ProductRepository productRepository;
     private final ConsignmentRepository consignmentRepository;
+    private final PlatformMetricsSnapshot platformMetricsSnapshot;
+    private final PrincipalCache principalCache;
 
     // ============================================================
     // User Management
     // ============================================================
 
     /**
-     * Get all users with optional filtering.
+     * Get users with optional filtering, paged by the database.
+     * With {@code afterId} the page is read by keyset in ID order and no
+     * total is counted, so deep pages cost the same as the first.
      */
-    public Page<UserAdminDto> getAllUsers(UserRole role, String status, Pageable pageable) {
-        List<User> users;
-
-        if (role != null && status != null) {
-            UserStatus userStatus = UserStatus.valueOf(status.toUpperCase());
-            users = userRepository.findAll().stream()
-                    .filter(u -> u.getRole() == role && u.getStatus() == userStatus)
-                    .collect(Collectors.toList());
-        } else if (role != null) {
-            users = userRepository.findAll().stream()
-                    .filter(u -> u.getRole() == role)
-                    .collect(Collectors.toList());
-        } else if (status != null) {
-            UserStatus userStatus = UserStatus.valueOf(status.toUpperCase());
-            users = userRepository.findAll().stream()
-                    .filter(u -> u.getStatus() == userStatus)
-                    .collect(Collectors.toList());
-        } else {
-            users = userRepository.findAll();
-        }
-
-        List<UserAdminDto> dtos = users.stream()
-                .map(this::mapToUserAdminDto)
-                .collect(Collectors.toList());
-
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), dtos.size());
-
-        return new PageImpl<>(dtos.subList(start, end), pageable, dtos.size());
+    public Slice<UserAdminDto> getAllUsers(UserRole role, String status, Long afterId, Pageable pageable) {
+        UserStatus userStatus = status != null ? UserStatus.valueOf(status.toUpperCase()) : null;
+        Specification<User> spec = Specification.allOf(
+                AdminSpecifications.userHasRole(role),
+                AdminSpecifications.userHasStatus(userStatus),
+                AdminSpecifications.fetchUserShop());
+
+        Slice<User> users = afterId == null
+                ? userRepository.findAll(spec, withDefaultSort(pageable))
+                : userRepository.findBy(spec.and(AdminSpecifications.idAfter(afterId)),
+                        query -> query.slice(PageRequest.of(0, pageable.getPageSize(), ID_ORDER)));
+
+        return withContent(users, mapToUserAdminDtos(users.getContent()));
     }
 
     /**
@@ -81,7 +79,7 @@ public class AdminService {
     public UserAdminDto getUserDetails(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        return mapToUserAdminDto(user);
+        return mapToUserAdminDtos(List.of(user)).get(0);
     }
 
     /**
@@ -95,6 +93,7 @@ public class AdminService {
         user.setStatus(UserStatus.SUSPENDED);
         user.setSuspensionReason(reason);
         userRepository.save(user);
+        principalCache.evict(userId);
 
         log.info("User {} suspended. Reason: {}", user.getEmail(), reason);
     }
@@ -110,6 +109,7 @@ public class AdminService {
         user.setStatus(UserStatus.ACTIVE);
         user.setSuspensionReason(null);
         userRepository.save(user);
+        principalCache.evict(userId);
 
         log.info("User {} activated", user.getEmail());
     }
@@ -125,6 +125,7 @@ public class AdminService {
         user.setStatus(UserStatus.BANNED);
         user.setSuspensionReason(reason);
         userRepository.save(user);
+        principalCache.evict(userId);
 
         log.info("User {} banned. Reason: {}", user.getEmail(), reason);
     }
@@ -134,37 +135,31 @@ public class AdminService {
     // ============================================================
 
     /**
-     * Get all shops with optional filtering.
+     * Get shops with optional filtering, paged by the database.
+     * With {@code afterId} the page is read by keyset in ID order and no
+     * total is counted.
      */
-    public Page<ShopAdminDto> getAllShops(Boolean verified, Pageable pageable) {
-        List<Shop> shops;
-
-        if (verified != null) {
-            shops = shopRepository.findAll().stream()
-                    .filter(s -> s.getIsVerified().equals(verified))
-                    .collect(Collectors.toList());
-        } else {
-            shops = shopRepository.findAll();
-        }
-
-        List<ShopAdminDto> dtos = shops.stream()
-                .map(this::mapToShopAdminDto)
-                .collect(Collectors.toList());
+    public Slice<ShopAdminDto> getAllShops(Boolean verified, Long afterId, Pageable pageable) {
+        Specification<Shop> spec = Specification.allOf(
+                AdminSpecifications.shopIsVerified(verified),
+                AdminSpecifications.fetchShopOwner());
 
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), dtos.size());
+        Slice<Shop> shops = afterId == null
+                ? shopRepository.findAll(spec, withDefaultSort(pageable))
+                : shopRepository.findBy(spec.and(AdminSpecifications.idAfter(afterId)),
+                        query -> query.slice(PageRequest.of(0, pageable.getPageSize(), ID_ORDER)));
 
-        return new PageImpl<>(dtos.subList(start, end), pageable, dtos.size());
+        return withContent(shops, mapToShopAdminDtos(shops.getContent()));
     }
 
     /**
      * Get shops pending verification.
      */
     public List<ShopAdminDto> getPendingVerifications() {
-        return shopRepository.findAll().stream()
-                .filter(shop -> !shop.getIsVerified())
-                .map(this::mapToShopAdminDto)
-                .collect(Collectors.toList());
+        Specification<Shop> spec = Specification.allOf(
+                AdminSpecifications.shopIsVerified(false),
+                AdminSpecifications.fetchShopOwner());
+        return mapToShopAdminDtos(shopRepository.findAll(spec, ID_ORDER));
     }
 
     /**
@@ -179,6 +174,7 @@ public class AdminService {
         shop.setVerificationMessage(message);
         shop.setVerifiedAt(LocalDateTime.now());
         shopRepository.save(shop);
+        platformMetricsSnapshot.recordWrites(1);
 
         log.info("Shop {} verified", shop.getName());
     }
@@ -194,6 +190,7 @@ public class AdminService {
         shop.setIsVerified(false);
         shop.setVerificationMessage(message);
         shopRepository.save(shop);
+        platformMetricsSnapshot.recordWrites(1);
 
         log.info("Shop {} verification rejected", shop.getName());
     }
@@ -203,103 +200,61 @@ public class AdminService {
     // ============================================================
 
     /**
-     * Get platform-wide metrics.
+     * Get platform-wide metrics from the in-memory snapshot.
      */
     public PlatformMetricsDto getPlatformMetrics() {
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime sevenDaysAgo = now.minusDays(7);
-        LocalDateTime monthStart = now.withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
-
-        // User metrics
-        long totalUsers = userRepository.count();
-        long totalShopOwners = userRepository.findAll().stream()
-                .filter(u -> u.getRole() == UserRole.SHOP_OWNER)
-                .count();
-        long totalConsignors = userRepository.findAll().stream()
-                .filter(u -> u.getRole() == UserRole.CONSIGNOR)
-                .count();
-        long activeUsersLast7Days = userRepository.findAll().stream()
-                .filter(u -> u.getLastLoginAt() != null && u.getLastLoginAt().isAfter(sevenDaysAgo))
-                .count();
-        long newUsersThisMonth = userRepository.findAll().stream()
-                .filter(u -> u.getCreatedAt().isAfter(monthStart))
-                .count();
-
-        // Shop metrics
-        long totalShops = shopRepository.count();
-        long activeShops = shopRepository.findAll().stream()
-                .filter(Shop::getIsActive)
-                .count();
-        long pendingVerifications = shopRepository.findAll().stream()
-                .filter(s -> !s.getIsVerified())
-                .count();
-
-        // Product metrics
-        long totalProducts = productRepository.count();
-        long activeProducts = productRepository.findAll().stream()
-                .filter(p -> p.getIsActive())
-                .count();
-
-        // Consignment metrics
-        long totalConsignments = consignmentRepository.count();
-        long activeConsignments = consignmentRepository.findAll().stream()
-                .filter(c -> c.getStatus() == ConsignmentStatus.ACTIVE)
-                .count();
-        long expiringConsignments = consignmentRepository.findAll().stream()
-                .filter(c -> c.getStatus() == ConsignmentStatus.ACTIVE
-                        && c.getExpiryDate() != null
-                        && c.getExpiryDate().isBefore(LocalDate.now().plusDays(7)))
-                .count();
-
-        // Financial metrics (placeholder - will be calculated from sales)
-        BigDecimal totalGMV = BigDecimal.ZERO;
-        BigDecimal monthlyGMV = BigDecimal.ZERO;
-        BigDecimal platformRevenue = BigDecimal.ZERO;
-        long totalTransactions = 0L;
-
-        // Growth metrics (placeholder)
-        double userGrowthRate = 0.0;
-        double revenueGrowthRate = 0.0;
-
-        return PlatformMetricsDto.builder()
-                .totalUsers(totalUsers)
-                .totalShopOwners(totalShopOwners)
-                .totalConsignors(totalConsignors)
-                .activeUsersLast7Days(activeUsersLast7Days)
-                .newUsersThisMonth(newUsersThisMonth)
-                .totalShops(totalShops)
-                .activeShops(activeShops)
-                .pendingVerifications(pendingVerifications)
-                .totalProducts(totalProducts)
-                .activeProducts(activeProducts)
-                .totalConsignments(totalConsignments)
-                .activeConsignments(activeConsignments)
-                .expiringConsignments(expiringConsignments)
-                .totalGMV(totalGMV)
-                .monthlyGMV(monthlyGMV)
-                .platformRevenue(platformRevenue)
-                .totalTransactions(totalTransactions)
-                .userGrowthRate(userGrowthRate)
-                .revenueGrowthRate(revenueGrowthRate)
-                .build();
+        return platformMetricsSnapshot.get();
     }
 
     // ============================================================
     // Helper Methods
     // ============================================================
 
-    private UserAdminDto mapToUserAdminDto(User user) {
-        // Calculate statistics
-        long totalProducts = productRepository.findAll().stream()
-                .filter(p -> p.getOwner() != null && p.getOwner().getId().equals(user.getId()))
-                .count();
+    /**
+     * Order by ID when the caller asked for no order, so offset pages are
+     * stable.
+     */
+    private static Pageable withDefaultSort(Pageable pageable) {
+        if (pageable.isUnpaged() || pageable.getSort().isSorted()) {
+            return pageable;
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), ID_ORDER);
+    }
 
-        long totalConsignments = consignmentRepository.findAll().stream()
-                .filter(c -> c.getProduct() != null
-                        && c.getProduct().getOwner() != null
-                        && c.getProduct().getOwner().getId().equals(user.getId()))
-                .count();
+    /**
+     * Same page or slice with mapped content.
+     */
+    private static <T, R> Slice<R> withContent(Slice<T> slice, List<R> content) {
+        if (slice instanceof Page<T> page) {
+            return new PageImpl<>(content, page.getPageable(), page.getTotalElements());
+        }
+        return new SliceImpl<>(content, slice.getPageable(), slice.hasNext());
+    }
+
+    /**
+     * Map users to DTOs. Statistics for all of them are counted with one
+     * grouped query per table.
+     */
+    private List<UserAdminDto> mapToUserAdminDtos(List<User> users) {
+        if (users.isEmpty()) {
+            return List.of();
+        }
 
+        List<Long> userIds = users.stream().map(User::getId).toList();
+        Map<Long, Long> productCounts = productRepository.countByOwnerIds(userIds).stream()
+                .collect(Collectors.toMap(OwnerProductCount::getOwnerId, OwnerProductCount::getProductCount));
+        Map<Long, Long> consignmentCounts = consignmentRepository.countByProductOwnerIds(userIds).stream()
+                .collect(Collectors.toMap(OwnerConsignmentCount::getOwnerId,
+                        OwnerConsignmentCount::getConsignmentCount));
+
+        return users.stream()
+                .map(user -> mapToUserAdminDto(user,
+                        productCounts.getOrDefault(user.getId(), 0L),
+                        consignmentCounts.getOrDefault(user.getId(), 0L)))
+                .collect(Collectors.toList());
+    }
+
+    private UserAdminDto mapToUserAdminDto(User user, long totalProducts, long totalConsignments) {
         return UserAdminDto.builder()
                 .id(user.getId())
                 .name(user.getName())
@@ -317,17 +272,30 @@ public class AdminService {
                 .build();
     }
 
-    private ShopAdminDto mapToShopAdminDto(Shop shop) {
-        long totalProducts = consignmentRepository.findAll().stream()
-                .filter(c -> c.getShop() != null && c.getShop().getId().equals(shop.getId()))
-                .map(c -> c.getProduct())
-                .distinct()
-                .count();
+    /**
+     * Map shops to DTOs. Statistics for all of them are counted with one
+     * grouped query.
+     */
+    private List<ShopAdminDto> mapToShopAdminDtos(List<Shop> shops) {
+        if (shops.isEmpty()) {
+            return List.of();
+        }
 
-        long totalConsignments = consignmentRepository.findAll().stream()
-                .filter(c -> c.getShop() != null && c.getShop().getId().equals(shop.getId()))
-                .count();
+        List<Long> shopIds = shops.stream().map(Shop::getId).toList();
+        Map<Long, ShopConsignmentCount> counts = consignmentRepository.countByShopIds(shopIds).stream()
+                .collect(Collectors.toMap(ShopConsignmentCount::getShopId, Function.identity()));
+
+        return shops.stream()
+                .map(shop -> {
+                    ShopConsignmentCount count = counts.get(shop.getId());
+                    return mapToShopAdminDto(shop,
+                            count != null ? count.getProductCount() : 0L,
+                            count != null ? count.getConsignmentCount() : 0L);
+                })
+                .collect(Collectors.toList());
+    }
 
+    private ShopAdminDto mapToShopAdminDto(Shop shop, long totalProducts, long totalConsignments) {
         return ShopAdminDto.builder()
                 .id(shop.getId())
                 .name(shop.getName())
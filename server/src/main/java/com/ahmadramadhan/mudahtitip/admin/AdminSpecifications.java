@@ -0,0 +1,68 @@
+package com.ahmadramadhan.mudahtitip.admin;
+
+import com.ahmadramadhan.mudahtitip.auth.User;
+import com.ahmadramadhan.mudahtitip.auth.UserRole;
+import com.ahmadramadhan.mudahtitip.auth.UserStatus;
+import com.ahmadramadhan.mudahtitip.shop.Shop;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Filters for admin listings, applied by the database.
+ * A null argument leaves the listing unfiltered.
+ */
+final class AdminSpecifications {
+
+    private AdminSpecifications() {
+    }
+
+    static Specification<User> userHasRole(UserRole role) {
+        return (root, query, cb) -> role == null ? null : cb.equal(root.get("role"), role);
+    }
+
+    static Specification<User> userHasStatus(UserStatus status) {
+        return (root, query, cb) -> status == null ? null : cb.equal(root.get("status"), status);
+    }
+
+    static Specification<Shop> shopIsVerified(Boolean verified) {
+        return (root, query, cb) -> verified == null ? null : cb.equal(root.get("isVerified"), verified);
+    }
+
+    /**
+     * Fetch each user's shop with the user instead of one select per row.
+     * Skipped for the count query, which cannot fetch.
+     */
+    static Specification<User> fetchUserShop() {
+        return (root, query, cb) -> {
+            if (!isCountQuery(query)) {
+                root.fetch("shop", JoinType.LEFT);
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Fetch each shop's owner with the shop instead of one select per row.
+     * Skipped for the count query, which cannot fetch.
+     */
+    static Specification<Shop> fetchShopOwner() {
+        return (root, query, cb) -> {
+            if (!isCountQuery(query)) {
+                root.fetch("owner");
+            }
+            return null;
+        };
+    }
+
+    private static boolean isCountQuery(CriteriaQuery<?> query) {
+        return query.getResultType() == Long.class || query.getResultType() == long.class;
+    }
+
+    /**
+     * Rows after a keyset cursor, for listings ordered by ID.
+     */
+    static <T> Specification<T> idAfter(Long afterId) {
+        return (root, query, cb) -> afterId == null ? null : cb.greaterThan(root.get("id"), afterId);
+    }
+}
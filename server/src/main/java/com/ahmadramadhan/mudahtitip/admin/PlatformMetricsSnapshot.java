@@ -0,0 +1,273 @@
+package com.ahmadramadhan.mudahtitip.admin;
+
+import com.ahmadramadhan.mudahtitip.admin.dto.PlatformMetricsDto;
+import com.ahmadramadhan.mudahtitip.auth.UserRepository;
+import com.ahmadramadhan.mudahtitip.auth.dto.UserCounts;
+import com.ahmadramadhan.mudahtitip.consignment.ConsignmentRepository;
+import com.ahmadramadhan.mudahtitip.consignment.dto.ConsignmentCounts;
+import com.ahmadramadhan.mudahtitip.product.ProductRepository;
+import com.ahmadramadhan.mudahtitip.product.dto.ProductCounts;
+import com.ahmadramadhan.mudahtitip.sale.SaleDailyRollupRepository;
+import com.ahmadramadhan.mudahtitip.sale.SaleMonthlyRollup;
+import com.ahmadramadhan.mudahtitip.sale.SaleMonthlyRollupRepository;
+import com.ahmadramadhan.mudahtitip.sale.dto.SalesTotalsAggregate;
+import com.ahmadramadhan.mudahtitip.shop.ShopRepository;
+import com.ahmadramadhan.mudahtitip.shop.dto.ShopCounts;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * In-memory snapshot of the platform metrics shown on the admin dashboard.
+ * 
+ * The snapshot is computed on first read, then rebuilt on a fixed schedule
+ * and in the background once {@code refresh-after-writes} write events have
+ * been recorded, so dashboard reads do not touch the database while it is
+ * warm. Concurrent refreshes share one computation. Each snapshot carries
+ * the time it was generated so clients can tell how stale it is.
+ */
+@Component
+@Slf4j
+public class PlatformMetricsSnapshot {
+
+    private final UserRepository userRepository;
+    private final ShopRepository shopRepository;
+    private final ProductRepository productRepository;
+    private final ConsignmentRepository consignmentRepository;
+    private final SaleMonthlyRollupRepository saleMonthlyRollupRepository;
+    private final SaleDailyRollupRepository saleDailyRollupRepository;
+    private final int refreshAfterWrites;
+    private final ExecutorService refreshExecutor;
+
+    private final AtomicReference<PlatformMetricsDto> snapshot = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<PlatformMetricsDto>> inFlight = new AtomicReference<>();
+    private final AtomicInteger writesSinceRefresh = new AtomicInteger();
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+
+    public PlatformMetricsSnapshot(
+            UserRepository userRepository,
+            ShopRepository shopRepository,
+            ProductRepository productRepository,
+            ConsignmentRepository consignmentRepository,
+            SaleMonthlyRollupRepository saleMonthlyRollupRepository,
+            SaleDailyRollupRepository saleDailyRollupRepository,
+            @Value("${admin.metrics.refresh-after-writes:100}") int refreshAfterWrites) {
+        this.userRepository = userRepository;
+        this.shopRepository = shopRepository;
+        this.productRepository = productRepository;
+        this.consignmentRepository = consignmentRepository;
+        this.saleMonthlyRollupRepository = saleMonthlyRollupRepository;
+        this.saleDailyRollupRepository = saleDailyRollupRepository;
+        this.refreshAfterWrites = refreshAfterWrites;
+        this.refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "platform-metrics-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Current snapshot, computed on the caller's thread only when none
+     * exists yet.
+     */
+    public PlatformMetricsDto get() {
+        PlatformMetricsDto current = snapshot.get();
+        if (current != null) {
+            return current;
+        }
+        try {
+            return refresh().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Record writes that change the metrics. Once enough have committed,
+     * the snapshot is rebuilt in the background. At most one background
+     * rebuild is queued at a time.
+     */
+    public void recordWrites(int count) {
+        afterCommit(() -> {
+            if (writesSinceRefresh.addAndGet(count) >= refreshAfterWrites
+                    && snapshot.get() != null
+                    && refreshQueued.compareAndSet(false, true)) {
+                refreshExecutor.execute(this::runQueuedRefresh);
+            }
+        });
+    }
+
+    /**
+     * Rebuild the snapshot on a fixed delay, once one has been requested.
+     */
+    @Scheduled(fixedDelayString = "${admin.metrics.refresh-interval:1m}")
+    public void scheduledRefresh() {
+        if (snapshot.get() != null) {
+            refreshQuietly();
+        }
+    }
+
+    /**
+     * Rebuild the snapshot, or join the rebuild already running.
+     */
+    CompletableFuture<PlatformMetricsDto> refresh() {
+        CompletableFuture<PlatformMetricsDto> flight = new CompletableFuture<>();
+        CompletableFuture<PlatformMetricsDto> running = inFlight.compareAndExchange(null, flight);
+        if (running != null) {
+            return running;
+        }
+
+        try {
+            writesSinceRefresh.set(0);
+            PlatformMetricsDto metrics = load();
+            snapshot.set(metrics);
+            flight.complete(metrics);
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+        } finally {
+            inFlight.set(null);
+        }
+        return flight;
+    }
+
+    private void runQueuedRefresh() {
+        // Writes from now on may queue the next rebuild
+        refreshQueued.set(false);
+        // Skip when a scheduled refresh already caught up with the writes
+        if (writesSinceRefresh.get() >= refreshAfterWrites) {
+            refreshQuietly();
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh().join();
+        } catch (CompletionException e) {
+            // Keep serving the previous snapshot
+            log.warn("Failed to refresh platform metrics: {}", e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Compute the metrics. Each table is counted with a single aggregate
+     * query and sales are read from the monthly and daily rollups.
+     */
+    private PlatformMetricsDto load() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime sevenDaysAgo = now.minusDays(7);
+        LocalDateTime monthStart = now.withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
+
+        UserCounts users = userRepository.countForPlatform(sevenDaysAgo, monthStart);
+        ShopCounts shops = shopRepository.countForPlatform();
+        ProductCounts products = productRepository.countForPlatform();
+        ConsignmentCounts consignments = consignmentRepository.countForPlatform(LocalDate.now().plusDays(7));
+
+        // Financial metrics from the monthly sales rollup (one row per month)
+        LocalDate thisMonth = monthStart.toLocalDate();
+        SalesTotalsAggregate sales = saleMonthlyRollupRepository.sumAll();
+        SaleMonthlyRollup currentMonth = saleMonthlyRollupRepository
+                .findBySaleMonthIn(List.of(thisMonth)).stream()
+                .findFirst()
+                .orElse(null);
+
+        BigDecimal totalGMV = sales.getTotalAmount();
+        BigDecimal monthlyGMV = monthTotal(currentMonth, SaleMonthlyRollup::getTotalAmount);
+        // No platform fee exists yet; revenue is the commission kept by shops
+        BigDecimal platformRevenue = sales.getShopCommission();
+        long totalTransactions = sales.getSalesCount();
+
+        // Growth metrics: users against the user base at month start; revenue
+        // month-to-date against the same days of last month, from the daily rollup
+        double userGrowthRate = growthRate(
+                BigDecimal.valueOf(users.getTotal() - users.getCreatedSince()),
+                BigDecimal.valueOf(users.getTotal()));
+        LocalDate today = now.toLocalDate();
+        SalesTotalsAggregate monthToDate = saleDailyRollupRepository.sumBetween(thisMonth, today);
+        SalesTotalsAggregate lastMonthToDate = saleDailyRollupRepository.sumBetween(
+                thisMonth.minusMonths(1), today.minusMonths(1));
+        double revenueGrowthRate = growthRate(
+                lastMonthToDate.getShopCommission(),
+                monthToDate.getShopCommission());
+
+        return PlatformMetricsDto.builder()
+                .totalUsers(users.getTotal())
+                .totalShopOwners(users.getShopOwners())
+                .totalConsignors(users.getConsignors())
+                .activeUsersLast7Days(users.getActiveSince())
+                .newUsersThisMonth(users.getCreatedSince())
+                .totalShops(shops.getTotal())
+                .activeShops(shops.getActive())
+                .pendingVerifications(shops.getUnverified())
+                .totalProducts(products.getTotal())
+                .activeProducts(products.getActive())
+                .totalConsignments(consignments.getTotal())
+                .activeConsignments(consignments.getActive())
+                .expiringConsignments(consignments.getExpiring())
+                .totalGMV(totalGMV)
+                .monthlyGMV(monthlyGMV)
+                .platformRevenue(platformRevenue)
+                .totalTransactions(totalTransactions)
+                .userGrowthRate(userGrowthRate)
+                .revenueGrowthRate(revenueGrowthRate)
+                .generatedAt(now)
+                .build();
+    }
+
+    private static BigDecimal monthTotal(SaleMonthlyRollup month, Function<SaleMonthlyRollup, BigDecimal> field) {
+        return month != null ? field.apply(month) : BigDecimal.ZERO;
+    }
+
+    /**
+     * Percentage change from {@code previous} to {@code current}, or 0 when
+     * there is nothing to compare against.
+     */
+    private static double growthRate(BigDecimal previous, BigDecimal current) {
+        if (previous.signum() == 0) {
+            return 0.0;
+        }
+        return current.subtract(previous)
+                .multiply(BigDecimal.valueOf(100))
+                .divide(previous, 2, RoundingMode.HALF_UP)
+                .doubleValue();
+    }
+
+    private void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+}
@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 /**
  * Platform-wide metrics for admin dashboard.
@@ -42,7 +43,11 @@ public class PlatformMetricsDto {
     private BigDecimal platformRevenue;
     private Long totalTransactions;
 
-    // Growth metrics
+    // Growth metrics (percent): users against the user base at month start,
+    // shop commission month-to-date against the same days of last month
     private Double userGrowthRate;
     private Double revenueGrowthRate;
+
+    // When these metrics were computed (served from a periodic snapshot)
+    private LocalDateTime generatedAt;
 }
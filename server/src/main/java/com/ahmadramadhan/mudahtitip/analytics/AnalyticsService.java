@@ -3,69 +3,69 @@ package com.ahmadramadhan.mudahtitip.analytics;
 import com.ahmadramadhan.mudahtitip.analytics.dto.EarningsBreakdownDTO;
 import com.ahmadramadhan.mudahtitip.analytics.dto.TopProductDTO;
 import com.ahmadramadhan.mudahtitip.analytics.dto.TrendDataDTO;
-import com.ahmadramadhan.mudahtitip.sale.Sale;
-import com.ahmadramadhan.mudahtitip.sale.SaleRepository;
+import com.ahmadramadhan.mudahtitip.sale.SaleDailyRollupRepository;
+import com.ahmadramadhan.mudahtitip.sale.dto.DailySalesAggregate;
+import com.ahmadramadhan.mudahtitip.sale.dto.ProductSalesAggregate;
 import com.ahmadramadhan.mudahtitip.shop.Shop;
 import com.ahmadramadhan.mudahtitip.shop.ShopRepository;
 import com.ahmadramadhan.mudahtitip.auth.User;
 import com.ahmadramadhan.mudahtitip.auth.UserRole;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Service for generating analytics data.
+ * Reads from the daily sales rollup, so the rows scanned depend on the
+ * number of days and products rather than the number of sales.
  */
 @Service
 @RequiredArgsConstructor
 public class AnalyticsService {
 
-    private final SaleRepository saleRepository;
+    private final SaleDailyRollupRepository rollupRepository;
     private final ShopRepository shopRepository;
 
     /**
      * Get daily sales trend for the user.
      */
     public List<TrendDataDTO> getDailySalesTrend(User user, LocalDate startDate, LocalDate endDate) {
-        List<Sale> sales = getSalesForUser(user, startDate, endDate);
+        Map<LocalDate, DailySalesAggregate> salesByDate = getDailyAggregates(user, startDate, endDate).stream()
+                .collect(Collectors.toMap(DailySalesAggregate::getSaleDate, Function.identity()));
 
-        // Group sales by date
-        Map<LocalDate, List<Sale>> salesByDate = sales.stream()
-                .collect(Collectors.groupingBy(
-                        sale -> sale.getSoldAt().toLocalDate(),
-                        TreeMap::new,
-                        Collectors.toList()));
+        boolean isShopOwner = user.getRole() == UserRole.SHOP_OWNER;
 
-        // Generate trend data for each day in range
+        // Generate trend data for each day in range, filling days without sales
         List<TrendDataDTO> trends = new ArrayList<>();
         LocalDate current = startDate;
         while (!current.isAfter(endDate)) {
-            List<Sale> daySales = salesByDate.getOrDefault(current, Collections.emptyList());
-
-            BigDecimal totalAmount = daySales.stream()
-                    .map(Sale::getTotalAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            BigDecimal earnings = getEarningsForSales(user, daySales);
-
-            int itemsSold = daySales.stream()
-                    .mapToInt(Sale::getQuantitySold)
-                    .sum();
-
-            trends.add(TrendDataDTO.builder()
-                    .date(current)
-                    .salesCount(daySales.size())
-                    .itemsSold(itemsSold)
-                    .totalAmount(totalAmount)
-                    .earnings(earnings)
-                    .build());
+            DailySalesAggregate day = salesByDate.get(current);
+
+            if (day == null) {
+                trends.add(TrendDataDTO.builder()
+                        .date(current)
+                        .salesCount(0)
+                        .itemsSold(0)
+                        .totalAmount(BigDecimal.ZERO)
+                        .earnings(BigDecimal.ZERO)
+                        .build());
+            } else {
+                trends.add(TrendDataDTO.builder()
+                        .date(current)
+                        .salesCount(day.getSalesCount().intValue())
+                        .itemsSold(day.getItemsSold().intValue())
+                        .totalAmount(day.getTotalAmount())
+                        .earnings(isShopOwner ? day.getShopCommission() : day.getConsignorEarning())
+                        .build());
+            }
 
             current = current.plusDays(1);
         }
@@ -77,77 +77,44 @@ public class AnalyticsService {
      * Get top performing products.
      */
     public List<TopProductDTO> getTopProducts(User user, int limit, LocalDate startDate, LocalDate endDate) {
-        List<Sale> sales = getSalesForUser(user, startDate, endDate);
-
-        // Group by product and aggregate
-        Map<Long, List<Sale>> salesByProduct = sales.stream()
-                .collect(Collectors.groupingBy(
-                        sale -> sale.getConsignment().getProduct().getId()));
-
         boolean isShopOwner = user.getRole() == UserRole.SHOP_OWNER;
 
-        List<TopProductDTO> topProducts = salesByProduct.entrySet().stream()
-                .map(entry -> {
-                    List<Sale> productSales = entry.getValue();
-                    Sale firstSale = productSales.get(0);
-
-                    int totalSold = productSales.stream()
-                            .mapToInt(Sale::getQuantitySold)
-                            .sum();
-
-                    BigDecimal totalRevenue = productSales.stream()
-                            .map(Sale::getTotalAmount)
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                    BigDecimal totalEarnings = productSales.stream()
-                            .map(s -> isShopOwner ? s.getShopCommission() : s.getConsignorEarning())
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                    return TopProductDTO.builder()
-                            .productId(entry.getKey())
-                            .productName(firstSale.getConsignment().getProduct().getName())
-                            .category(firstSale.getConsignment().getProduct().getCategory())
-                            .totalSold(totalSold)
-                            .totalRevenue(totalRevenue)
-                            .totalEarnings(totalEarnings)
-                            .build();
-                })
-                .sorted(Comparator.comparing(TopProductDTO::getTotalEarnings).reversed())
-                .limit(limit)
+        return getProductAggregates(user, startDate, endDate, PageRequest.of(0, limit)).stream()
+                .map(row -> TopProductDTO.builder()
+                        .productId(row.getProductId())
+                        .productName(row.getProductName())
+                        .category(row.getCategory())
+                        .totalSold(row.getItemsSold().intValue())
+                        .totalRevenue(row.getTotalAmount())
+                        .totalEarnings(isShopOwner ? row.getShopCommission() : row.getConsignorEarning())
+                        .build())
                 .toList();
-
-        return topProducts;
     }
 
     /**
      * Get earnings breakdown by product.
      */
     public List<EarningsBreakdownDTO> getEarningsBreakdown(User user, LocalDate startDate, LocalDate endDate) {
-        List<Sale> sales = getSalesForUser(user, startDate, endDate);
+        List<ProductSalesAggregate> rows = getProductAggregates(user, startDate, endDate, Pageable.unpaged());
         boolean isShopOwner = user.getRole() == UserRole.SHOP_OWNER;
 
+        Function<ProductSalesAggregate, BigDecimal> earningsOf = isShopOwner
+                ? ProductSalesAggregate::getShopCommission
+                : ProductSalesAggregate::getConsignorEarning;
+
         // Calculate total earnings
-        BigDecimal totalEarnings = sales.stream()
-                .map(s -> isShopOwner ? s.getShopCommission() : s.getConsignorEarning())
+        BigDecimal totalEarnings = rows.stream()
+                .map(earningsOf)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
         if (totalEarnings.compareTo(BigDecimal.ZERO) == 0) {
             return Collections.emptyList();
         }
 
-        // Group by product
-        Map<Long, List<Sale>> salesByProduct = sales.stream()
-                .collect(Collectors.groupingBy(
-                        sale -> sale.getConsignment().getProduct().getId()));
-
-        return salesByProduct.entrySet().stream()
-                .map(entry -> {
-                    List<Sale> productSales = entry.getValue();
-                    Sale firstSale = productSales.get(0);
-
-                    BigDecimal productEarnings = productSales.stream()
-                            .map(s -> isShopOwner ? s.getShopCommission() : s.getConsignorEarning())
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Rows are already ordered by earnings, highest first
+        return rows.stream()
+                .map(row -> {
+                    BigDecimal productEarnings = earningsOf.apply(row);
 
                     double percentage = productEarnings
                             .divide(totalEarnings, 4, RoundingMode.HALF_UP)
@@ -155,35 +122,36 @@ public class AnalyticsService {
                             .doubleValue();
 
                     return EarningsBreakdownDTO.builder()
-                            .productId(entry.getKey())
-                            .productName(firstSale.getConsignment().getProduct().getName())
-                            .category(firstSale.getConsignment().getProduct().getCategory())
+                            .productId(row.getProductId())
+                            .productName(row.getProductName())
+                            .category(row.getCategory())
                             .earnings(productEarnings)
                             .percentage(percentage)
                             .build();
                 })
-                .sorted(Comparator.comparing(EarningsBreakdownDTO::getEarnings).reversed())
                 .toList();
     }
 
-    private List<Sale> getSalesForUser(User user, LocalDate startDate, LocalDate endDate) {
-        LocalDateTime start = startDate.atStartOfDay();
-        LocalDateTime end = endDate.atTime(LocalTime.MAX);
+    private List<DailySalesAggregate> getDailyAggregates(User user, LocalDate startDate, LocalDate endDate) {
+        if (user.getRole() == UserRole.SHOP_OWNER) {
+            return rollupRepository.aggregateDailyByShop(getShopId(user), startDate, endDate);
+        } else {
+            return rollupRepository.aggregateDailyByOwner(user.getId(), startDate, endDate);
+        }
+    }
 
+    private List<ProductSalesAggregate> getProductAggregates(User user, LocalDate startDate, LocalDate endDate,
+            Pageable pageable) {
         if (user.getRole() == UserRole.SHOP_OWNER) {
-            Long shopId = shopRepository.findByOwner(user)
-                    .map(Shop::getId)
-                    .orElseThrow(() -> new IllegalStateException("Toko tidak ditemukan"));
-            return saleRepository.findByConsignmentShopIdAndSoldAtBetween(shopId, start, end);
+            return rollupRepository.aggregateByProductForShop(getShopId(user), startDate, endDate, pageable);
         } else {
-            return saleRepository.findByConsignmentProductOwnerIdAndSoldAtBetween(user.getId(), start, end);
+            return rollupRepository.aggregateByProductForOwner(user.getId(), startDate, endDate, pageable);
         }
     }
 
-    private BigDecimal getEarningsForSales(User user, List<Sale> sales) {
-        boolean isShopOwner = user.getRole() == UserRole.SHOP_OWNER;
-        return sales.stream()
-                .map(s -> isShopOwner ? s.getShopCommission() : s.getConsignorEarning())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    private Long getShopId(User user) {
+        return shopRepository.findByOwner(user)
+                .map(Shop::getId)
+                .orElseThrow(() -> new IllegalStateException("Toko tidak ditemukan"));
     }
 }
@@ -1,5 +1,6 @@
 package com.ahmadramadhan.mudahtitip.auth;
 
+import com.ahmadramadhan.mudahtitip.admin.PlatformMetricsSnapshot;
 import com.ahmadramadhan.mudahtitip.auth.dto.AuthResponse;
 import com.ahmadramadhan.mudahtitip.auth.dto.LoginRequest;
 import com.ahmadramadhan.mudahtitip.auth.dto.ProfileResponse;
@@ -9,6 +10,7 @@ import com.ahmadramadhan.mudahtitip.auth.dto.UpdatePasswordRequest;
 import com.ahmadramadhan.mudahtitip.auth.dto.UpdateProfileRequest;
 import com.ahmadramadhan.mudahtitip.common.MessageService;
 import com.ahmadramadhan.mudahtitip.common.security.JwtUtil;
+import com.ahmadramadhan.mudahtitip.common.security.PrincipalCache;
 import com.ahmadramadhan.mudahtitip.shop.Shop;
 import com.ahmadramadhan.mudahtitip.shop.ShopRepository;
 import lombok.RequiredArgsConstructor;
@@ -28,6 +30,8 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final MessageService messageService;
+    private final PrincipalCache principalCache;
+    private final PlatformMetricsSnapshot platformMetricsSnapshot;
 
     /**
      * Register a new user. If role is SHOP_OWNER, also creates a shop.
@@ -74,6 +78,8 @@ public class AuthService {
             shopId = shop.getId();
         }
 
+        platformMetricsSnapshot.recordWrites(1);
+
         // Generate JWT token
         String token = jwtUtil.generateToken(user.getEmail(), user.getId(), user.getRole().name());
 
@@ -144,6 +150,7 @@ public class AuthService {
         }
 
         user = userRepository.save(user);
+        principalCache.evict(userId);
         return ProfileResponse.fromUser(user);
     }
 
@@ -168,6 +175,7 @@ public class AuthService {
 
         user.setEmail(request.getNewEmail());
         user = userRepository.save(user);
+        principalCache.evict(userId);
         return ProfileResponse.fromUser(user);
     }
 
@@ -186,5 +194,6 @@ public class AuthService {
 
         user.setPasswordHash(passwordEncoder.encode(request.getNewPassword()));
         userRepository.save(user);
+        principalCache.evict(userId);
     }
 }
@@ -4,14 +4,13 @@ import com.ahmadramadhan.mudahtitip.auth.dto.ProfileResponse;
 import com.ahmadramadhan.mudahtitip.auth.dto.UpdateEmailRequest;
 import com.ahmadramadhan.mudahtitip.auth.dto.UpdatePasswordRequest;
 import com.ahmadramadhan.mudahtitip.auth.dto.UpdateProfileRequest;
-import com.ahmadramadhan.mudahtitip.common.security.JwtUtil;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 
 import com.ahmadramadhan.mudahtitip.common.config.ApiV1Controller;
@@ -25,15 +24,14 @@ import com.ahmadramadhan.mudahtitip.common.config.ApiV1Controller;
 public class ProfileController {
 
     private final AuthService authService;
-    private final JwtUtil jwtUtil;
 
     /**
      * Get current user's profile.
      */
     @GetMapping
     public ResponseEntity<ProfileResponse> getProfile(
-            @RequestHeader("Authorization") String authHeader) {
-        Long userId = extractUserId(authHeader);
+            @AuthenticationPrincipal User currentUser) {
+        Long userId = currentUser.getId();
         ProfileResponse response = authService.getProfile(userId);
         return ResponseEntity.ok(response);
     }
@@ -43,9 +41,9 @@ public class ProfileController {
      */
     @PutMapping
     public ResponseEntity<ProfileResponse> updateProfile(
-            @RequestHeader("Authorization") String authHeader,
+            @AuthenticationPrincipal User currentUser,
             @Valid @RequestBody UpdateProfileRequest request) {
-        Long userId = extractUserId(authHeader);
+        Long userId = currentUser.getId();
         ProfileResponse response = authService.updateProfile(userId, request);
         return ResponseEntity.ok(response);
     }
@@ -55,9 +53,9 @@ public class ProfileController {
      */
     @PutMapping("/email")
     public ResponseEntity<ProfileResponse> updateEmail(
-            @RequestHeader("Authorization") String authHeader,
+            @AuthenticationPrincipal User currentUser,
             @Valid @RequestBody UpdateEmailRequest request) {
-        Long userId = extractUserId(authHeader);
+        Long userId = currentUser.getId();
         ProfileResponse response = authService.updateEmail(userId, request);
         return ResponseEntity.ok(response);
     }
@@ -67,15 +65,10 @@ public class ProfileController {
      */
     @PutMapping("/password")
     public ResponseEntity<Void> updatePassword(
-            @RequestHeader("Authorization") String authHeader,
+            @AuthenticationPrincipal User currentUser,
             @Valid @RequestBody UpdatePasswordRequest request) {
-        Long userId = extractUserId(authHeader);
+        Long userId = currentUser.getId();
         authService.updatePassword(userId, request);
         return ResponseEntity.ok().build();
     }
-
-    private Long extractUserId(String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        return jwtUtil.extractUserId(token);
-    }
 }
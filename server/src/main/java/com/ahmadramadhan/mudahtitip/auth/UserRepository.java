@@ -1,14 +1,32 @@
 package com.ahmadramadhan.mudahtitip.auth;
 
+import com.ahmadramadhan.mudahtitip.auth.dto.UserCounts;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
 
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    /**
+     * User counts for the admin dashboard in one pass over the table.
+     */
+    @Query("SELECT COUNT(u) AS total, " +
+            "COALESCE(SUM(CASE WHEN u.role = 'SHOP_OWNER' THEN 1 ELSE 0 END), 0) AS shopOwners, " +
+            "COALESCE(SUM(CASE WHEN u.role = 'CONSIGNOR' THEN 1 ELSE 0 END), 0) AS consignors, " +
+            "COALESCE(SUM(CASE WHEN u.lastLoginAt > :activeSince THEN 1 ELSE 0 END), 0) AS activeSince, " +
+            "COALESCE(SUM(CASE WHEN u.createdAt > :createdSince THEN 1 ELSE 0 END), 0) AS createdSince " +
+            "FROM User u")
+    UserCounts countForPlatform(
+            @Param("activeSince") LocalDateTime activeSince,
+            @Param("createdSince") LocalDateTime createdSince);
 }
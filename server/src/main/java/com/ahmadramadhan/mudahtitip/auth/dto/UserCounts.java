@@ -0,0 +1,17 @@
+package com.ahmadramadhan.mudahtitip.auth.dto;
+
+/**
+ * Projection for platform-wide user counts.
+ */
+public interface UserCounts {
+
+    Long getTotal();
+
+    Long getShopOwners();
+
+    Long getConsignors();
+
+    Long getActiveSince();
+
+    Long getCreatedSince();
+}
@@ -0,0 +1,46 @@
+package com.ahmadramadhan.mudahtitip.common.scheduling;
+
+import com.ahmadramadhan.mudahtitip.common.entity.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lease on a scheduled job, shared by all application instances.
+ * 
+ * The instance named in {@code lockedBy} may run the job until
+ * {@code lockUntil}; it pushes that time forward on every heartbeat while
+ * the job is running. An expired lease can be taken by any instance.
+ */
+@Entity
+@Table(name = "job_locks", uniqueConstraints = @UniqueConstraint(name = "uk_job_locks_name", columnNames = "name"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobLock extends BaseEntity {
+
+    @Column(nullable = false, length = 64)
+    private String name;
+
+    @Column(name = "locked_by", length = 255)
+    private String lockedBy;
+
+    @Column(name = "locked_at")
+    private LocalDateTime lockedAt;
+
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    @Column(name = "lock_until", nullable = false)
+    private LocalDateTime lockUntil;
+}
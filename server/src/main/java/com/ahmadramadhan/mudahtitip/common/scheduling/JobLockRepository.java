@@ -0,0 +1,50 @@
+package com.ahmadramadhan.mudahtitip.common.scheduling;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface JobLockRepository extends JpaRepository<JobLock, Long> {
+
+        boolean existsByName(String name);
+
+        /**
+         * Take the lease if it has expired. Returns 1 if this owner now holds it.
+         */
+        @Modifying
+        @Query("UPDATE JobLock l SET l.lockedBy = :owner, l.lockedAt = :now, l.heartbeatAt = :now, " +
+                        "l.lockUntil = :until, l.updatedAt = :now " +
+                        "WHERE l.name = :name AND l.lockUntil <= :now")
+        int acquire(@Param("name") String name,
+                        @Param("owner") String owner,
+                        @Param("now") LocalDateTime now,
+                        @Param("until") LocalDateTime until);
+
+        /**
+         * Extend a lease still held by this owner. Returns 0 if it was lost.
+         */
+        @Modifying
+        @Query("UPDATE JobLock l SET l.heartbeatAt = :now, l.lockUntil = :until, l.updatedAt = :now " +
+                        "WHERE l.name = :name AND l.lockedBy = :owner")
+        int extend(@Param("name") String name,
+                        @Param("owner") String owner,
+                        @Param("now") LocalDateTime now,
+                        @Param("until") LocalDateTime until);
+
+        /**
+         * End a lease held by this owner at {@code until}, which is now
+         * unless the minimum hold has not passed yet.
+         */
+        @Modifying
+        @Query("UPDATE JobLock l SET l.lockUntil = :until, l.updatedAt = :now " +
+                        "WHERE l.name = :name AND l.lockedBy = :owner")
+        int release(@Param("name") String name,
+                        @Param("owner") String owner,
+                        @Param("now") LocalDateTime now,
+                        @Param("until") LocalDateTime until);
+}
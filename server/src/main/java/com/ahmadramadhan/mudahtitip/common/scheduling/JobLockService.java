@@ -0,0 +1,143 @@
+package com.ahmadramadhan.mudahtitip.common.scheduling;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs scheduled jobs on one application instance at a time.
+ *
+ * Each job has a row in {@code job_locks}. An instance runs the job only if
+ * it takes the row's expired lease, extends the lease on a heartbeat while
+ * the job runs, and releases it when done. If an instance dies mid-run the
+ * lease simply expires. Lease times use the application clock, so the lease
+ * must be much longer than any clock skew between instances.
+ *
+ * A released lease is still held until {@code at-least-for} after the run
+ * started, so an instance whose clock or trigger is a few seconds late does
+ * not run the same job again straight after a short run. It must be shorter
+ * than the interval of the most frequent job.
+ */
+@Service
+@Slf4j
+public class JobLockService {
+
+    private final JobLockRepository jobLockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService heartbeatExecutor;
+    private final Duration lease;
+    private final Duration heartbeat;
+    private final Duration atLeastFor;
+    private final String instanceId;
+
+    public JobLockService(
+            JobLockRepository jobLockRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${scheduler.lock.lease:10m}") Duration lease,
+            @Value("${scheduler.lock.heartbeat:1m}") Duration heartbeat,
+            @Value("${scheduler.lock.at-least-for:30s}") Duration atLeastFor,
+            @Value("${scheduler.lock.instance-id:${HOSTNAME:local}}") String instanceName) {
+        this.jobLockRepository = jobLockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.lease = lease;
+        this.heartbeat = heartbeat;
+        this.atLeastFor = atLeastFor;
+        // Unique per process, so a restarted instance never inherits its old lease
+        this.instanceId = instanceName + ":" + UUID.randomUUID().toString().substring(0, 8);
+        this.heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "job-lock-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Run a job if no other instance is running it.
+     *
+     * @return true if the job ran here, false if it was skipped
+     */
+    public boolean runExclusive(String jobName, Runnable job) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        if (!tryAcquire(jobName, startedAt)) {
+            log.info("Skipping {}: running on another instance", jobName);
+            return false;
+        }
+
+        ScheduledFuture<?> heartbeatTask = heartbeatExecutor.scheduleAtFixedRate(
+                () -> extend(jobName), heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+        try {
+            job.run();
+            return true;
+        } finally {
+            heartbeatTask.cancel(false);
+            release(jobName, startedAt);
+        }
+    }
+
+    private boolean tryAcquire(String jobName, LocalDateTime now) {
+        createIfMissing(jobName);
+        Integer updated = transactionTemplate.execute(
+                status -> jobLockRepository.acquire(jobName, instanceId, now, now.plus(lease)));
+        return updated != null && updated == 1;
+    }
+
+    private void createIfMissing(String jobName) {
+        if (jobLockRepository.existsByName(jobName)) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jobLockRepository.save(JobLock.builder()
+                    .name(jobName)
+                    .lockUntil(LocalDateTime.now())
+                    .build()));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created it first
+            log.debug("Job lock {} already created", jobName);
+        }
+    }
+
+    private void extend(String jobName) {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Integer updated = transactionTemplate.execute(
+                    status -> jobLockRepository.extend(jobName, instanceId, now, now.plus(lease)));
+            if (updated == null || updated == 0) {
+                log.warn("Lost lock on {}; another instance may start it", jobName);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to extend lock on {}: {}", jobName, e.getMessage());
+        }
+    }
+
+    private void release(String jobName, LocalDateTime startedAt) {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime holdUntil = startedAt.plus(atLeastFor);
+            LocalDateTime until = holdUntil.isAfter(now) ? holdUntil : now;
+            transactionTemplate.executeWithoutResult(
+                    status -> jobLockRepository.release(jobName, instanceId, now, until));
+        } catch (RuntimeException e) {
+            // The lease will expire on its own
+            log.warn("Failed to release lock on {}: {}", jobName, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeatExecutor.shutdownNow();
+    }
+}
@@ -1,12 +1,12 @@
 package com.ahmadramadhan.mudahtitip.common.security;
 
 import com.ahmadramadhan.mudahtitip.auth.User;
-import com.ahmadramadhan.mudahtitip.auth.UserRepository;
+import com.ahmadramadhan.mudahtitip.auth.UserRole;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -19,13 +19,30 @@ import java.util.Collections;
 
 /**
  * JWT authentication filter that validates tokens on every request.
+ * 
+ * Each token is parsed and verified once; the resulting {@link TokenClaims}
+ * drive the rest of the request.
+ * 
+ * Principals come from {@link PrincipalCache}, so a warm request does not
+ * touch the database. With {@code security.principal-cache.trust-claims-for-reads}
+ * enabled, GET/HEAD requests that miss the cache are authenticated from the
+ * signed claims alone instead of loading the user.
  */
 @Component
-@RequiredArgsConstructor
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final boolean trustClaimsForReads;
+
+    public JwtAuthFilter(
+            JwtUtil jwtUtil,
+            PrincipalCache principalCache,
+            @Value("${security.principal-cache.trust-claims-for-reads:false}") boolean trustClaimsForReads) {
+        this.jwtUtil = jwtUtil;
+        this.principalCache = principalCache;
+        this.trustClaimsForReads = trustClaimsForReads;
+    }
 
     @Override
     protected void doFilterInternal(
@@ -41,13 +58,12 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
 
         try {
-            final String token = authHeader.substring(7);
-            final String email = jwtUtil.extractEmail(token);
+            final TokenClaims claims = jwtUtil.verify(authHeader.substring(7));
 
-            if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                User user = userRepository.findByEmail(email).orElse(null);
+            if (claims.email() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                User user = resolvePrincipal(claims, request);
 
-                if (user != null && jwtUtil.validateToken(token, email)) {
+                if (user != null) {
                     var authority = new SimpleGrantedAuthority("ROLE_" + user.getRole().name());
                     var authToken = new UsernamePasswordAuthenticationToken(
                             user,
@@ -64,4 +80,34 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private User resolvePrincipal(TokenClaims claims, HttpServletRequest request) {
+        Long userId = claims.userId();
+        if (userId == null) {
+            return null;
+        }
+
+        if (trustClaimsForReads && isReadOnly(request) && !principalCache.contains(userId)) {
+            return claimsPrincipal(claims);
+        }
+
+        // A token issued before an email change no longer matches the stored user
+        return principalCache.get(userId)
+                .filter(user -> claims.email().equals(user.getEmail()))
+                .orElse(null);
+    }
+
+    private User claimsPrincipal(TokenClaims claims) {
+        User user = User.builder()
+                .email(claims.email())
+                .role(UserRole.valueOf(claims.role()))
+                .build();
+        user.setId(claims.userId());
+        return user;
+    }
+
+    private boolean isReadOnly(HttpServletRequest request) {
+        String method = request.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method);
+    }
 }
@@ -1,8 +1,10 @@
 package com.ahmadramadhan.mudahtitip.common.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -15,6 +17,9 @@ import java.util.function.Function;
 
 /**
  * Utility class for JWT token operations.
+ * 
+ * The signing key and parser are built once at startup; both are immutable
+ * and safe to share across request threads.
  */
 @Component
 public class JwtUtil {
@@ -25,8 +30,15 @@ public class JwtUtil {
     @Value("${jwt.expiration:86400000}") // 24 hours in milliseconds
     private long expiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
     }
 
     public String generateToken(String email, Long userId, String role) {
@@ -42,26 +54,27 @@ public class JwtUtil {
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * Verify the signature and expiry of a token and return its claims.
+     * Parse once per request and pass the result around instead of calling
+     * the individual extract methods.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
+     */
+    public TokenClaims verify(String token) {
+        return TokenClaims.from(extractAllClaims(token));
+    }
+
     public String extractEmail(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
     public Long extractUserId(String token) {
-        return extractClaim(token, claims -> {
-            Object userId = claims.get("userId");
-            if (userId instanceof Long) {
-                return (Long) userId;
-            } else if (userId instanceof Integer) {
-                return ((Integer) userId).longValue();
-            } else if (userId instanceof Number) {
-                return ((Number) userId).longValue();
-            }
-            throw new IllegalStateException("userId claim is not a number");
-        });
+        return verify(token).userId();
     }
 
     public String extractRole(String token) {
@@ -78,11 +91,7 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     public boolean isTokenExpired(String token) {
@@ -90,7 +99,7 @@ public class JwtUtil {
     }
 
     public boolean validateToken(String token, String email) {
-        final String extractedEmail = extractEmail(token);
-        return (extractedEmail.equals(email) && !isTokenExpired(token));
+        final TokenClaims claims = verify(token);
+        return claims.email().equals(email) && claims.expiration().after(new Date());
     }
 }
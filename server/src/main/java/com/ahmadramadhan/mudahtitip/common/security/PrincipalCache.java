@@ -0,0 +1,73 @@
+package com.ahmadramadhan.mudahtitip.common.security;
+
+import com.ahmadramadhan.mudahtitip.auth.User;
+import com.ahmadramadhan.mudahtitip.auth.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded, TTL-based cache of authenticated principals keyed by user ID.
+ * 
+ * Saves the user lookup that JwtAuthFilter would otherwise run on every
+ * request. Anything that changes a user's email, role, status or profile
+ * must call {@link #evict(Long)} so the next request reloads it.
+ */
+@Component
+public class PrincipalCache {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, User> cache;
+
+    public PrincipalCache(
+            UserRepository userRepository,
+            @Value("${security.principal-cache.max-size:10000}") long maxSize,
+            @Value("${security.principal-cache.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Get the user for an ID, loading it from the database on a miss.
+     * The returned instance is detached and shared; do not modify it.
+     */
+    public Optional<User> get(Long userId) {
+        return Optional.ofNullable(cache.get(userId, id -> userRepository.findById(id).orElse(null)));
+    }
+
+    public boolean contains(Long userId) {
+        return cache.getIfPresent(userId) != null;
+    }
+
+    /**
+     * Drop a cached user. Inside a transaction the eviction is repeated after
+     * commit, so a request racing with the update cannot re-cache the old row.
+     */
+    public void evict(Long userId) {
+        cache.invalidate(userId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,29 @@
+package com.ahmadramadhan.mudahtitip.common.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+/**
+ * Claims of a JWT whose signature and expiry have already been verified.
+ */
+public record TokenClaims(String email, Long userId, String role, Date expiration) {
+
+    static TokenClaims from(Claims claims) {
+        return new TokenClaims(
+                claims.getSubject(),
+                toLong(claims.get("userId")),
+                claims.get("role", String.class),
+                claims.getExpiration());
+    }
+
+    private static Long toLong(Object userId) {
+        if (userId == null) {
+            return null;
+        }
+        if (userId instanceof Number number) {
+            return number.longValue();
+        }
+        throw new IllegalStateException("userId claim is not a number");
+    }
+}
@@ -71,7 +71,7 @@ public class ComplaintService {
 
         // Notify the consignor (product owner)
         User consignor = consignment.getProduct().getOwner();
-        notificationService.createNotification(
+        notificationService.queueNotification(
                 consignor,
                 NotificationType.COMPLAINT_RECEIVED,
                 "Keluhan Produk Baru",
@@ -145,7 +145,7 @@ public class ComplaintService {
                 request.isAccepted() ? "accepted" : "rejected");
 
         // Notify the reporter (shop owner)
-        notificationService.createNotification(
+        notificationService.queueNotification(
                 complaint.getReporter(),
                 NotificationType.COMPLAINT_RESOLVED,
                 "Keluhan Ditanggapi",
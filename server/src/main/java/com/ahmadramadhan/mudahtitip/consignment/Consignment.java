@@ -10,6 +10,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -34,7 +35,7 @@ import java.util.List;
  * Tracks quantity, pricing, commission, expiry, and status.
  */
 @Entity
-@Table(name = "consignments")
+@Table(name = "consignments", indexes = @Index(name = "idx_consignments_status_expiry", columnList = "status, expiry_date"))
 @Getter
 @Setter
 @NoArgsConstructor
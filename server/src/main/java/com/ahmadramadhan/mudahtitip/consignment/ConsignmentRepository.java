@@ -1,13 +1,26 @@
 package com.ahmadramadhan.mudahtitip.consignment;
 
 import com.ahmadramadhan.mudahtitip.auth.User;
+import com.ahmadramadhan.mudahtitip.consignment.dto.ConsignmentCounts;
+import com.ahmadramadhan.mudahtitip.consignment.dto.OwnerConsignmentCount;
+import com.ahmadramadhan.mudahtitip.consignment.dto.OwnerLowStockCount;
+import com.ahmadramadhan.mudahtitip.consignment.dto.ShopConsignmentCount;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ConsignmentRepository extends JpaRepository<Consignment, Long> {
@@ -53,4 +66,132 @@ public interface ConsignmentRepository extends JpaRepository<Consignment, Long>
         List<Consignment> findByShopOwnerIdAndStatus(
                         @Param("ownerId") Long ownerId,
                         @Param("status") ConsignmentStatus status);
+
+        /**
+         * Atomically take stock from a consignment if enough is left.
+         * The status is assigned first because MySQL evaluates SET clauses
+         * left to right against the already-updated row.
+         * 
+         * @return 1 if the stock was reduced, 0 if the consignment does not
+         *         exist or has fewer than the requested quantity left
+         */
+        @Modifying
+        @Query("UPDATE Consignment c SET " +
+                        "c.status = CASE WHEN c.currentQuantity = :quantity " +
+                        "THEN com.ahmadramadhan.mudahtitip.consignment.ConsignmentStatus.COMPLETED " +
+                        "ELSE c.status END, " +
+                        "c.currentQuantity = c.currentQuantity - :quantity, " +
+                        "c.updatedAt = CURRENT_TIMESTAMP " +
+                        "WHERE c.id = :id AND c.currentQuantity >= :quantity")
+        int decrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+        /**
+         * Load and row-lock several consignments for the rest of the transaction.
+         * Rows are locked in ID order so concurrent batches cannot deadlock.
+         */
+        @Lock(LockModeType.PESSIMISTIC_WRITE)
+        @Query("SELECT c FROM Consignment c WHERE c.id IN :ids ORDER BY c.id")
+        List<Consignment> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+        /**
+         * Load several consignments with product and shop fetched for
+         * notification text.
+         */
+        @Query("SELECT c FROM Consignment c JOIN FETCH c.product JOIN FETCH c.shop WHERE c.id IN :ids")
+        List<Consignment> findWithProductAndShopByIdIn(@Param("ids") Collection<Long> ids);
+
+        /**
+         * Active consignments that need a stock alert: out of stock with
+         * STOCK_OUT enabled, or at or below the owner's threshold with
+         * STOCK_LOW enabled. Owners without a preferences row get the defaults.
+         * Product, owner and shop are fetched for the notification text.
+         */
+        @Query("SELECT c FROM Consignment c " +
+                        "JOIN FETCH c.product p " +
+                        "JOIN FETCH p.owner o " +
+                        "LEFT JOIN FETCH o.shop " +
+                        "JOIN FETCH c.shop s " +
+                        "LEFT JOIN NotificationPreference np ON np.user = o " +
+                        "WHERE c.status = com.ahmadramadhan.mudahtitip.consignment.ConsignmentStatus.ACTIVE " +
+                        "AND ((c.currentQuantity = 0 AND COALESCE(np.stockOutEnabled, true) = true) " +
+                        "OR (c.currentQuantity > 0 " +
+                        "AND c.currentQuantity <= COALESCE(np.lowStockThreshold, :defaultThreshold) " +
+                        "AND COALESCE(np.stockLowEnabled, true) = true)) " +
+                        "ORDER BY c.id")
+        List<Consignment> findStockAlertCandidates(@Param("defaultThreshold") int defaultThreshold);
+
+        /**
+         * Page of active consignments whose expiry reminder is due today under
+         * the owner's reminder-days preference, in ID order after {@code afterId}.
+         * The expiry window bounds let the (status, expiry_date) index narrow the
+         * scan before preferences are joined.
+         */
+        @Query("SELECT c FROM Consignment c " +
+                        "JOIN FETCH c.product p " +
+                        "JOIN FETCH p.owner o " +
+                        "LEFT JOIN FETCH o.shop " +
+                        "JOIN FETCH c.shop s " +
+                        "LEFT JOIN NotificationPreference np ON np.user = o " +
+                        "WHERE c.status = com.ahmadramadhan.mudahtitip.consignment.ConsignmentStatus.ACTIVE " +
+                        "AND c.expiryDate BETWEEN :earliestExpiry AND :latestExpiry " +
+                        "AND c.id > :afterId " +
+                        "AND COALESCE(np.expiryRemindersEnabled, true) = true " +
+                        "AND c.expiryDate = :today + COALESCE(np.expiryReminderDays, :defaultDays) day " +
+                        "ORDER BY c.id")
+        List<Consignment> findExpiryReminderCandidates(
+                        @Param("today") LocalDate today,
+                        @Param("earliestExpiry") LocalDate earliestExpiry,
+                        @Param("latestExpiry") LocalDate latestExpiry,
+                        @Param("defaultDays") int defaultDays,
+                        @Param("afterId") Long afterId,
+                        Pageable pageable);
+
+        /**
+         * Stream low-stock consignment counts for every consignor who opted
+         * into the weekly summary, ordered by consignor. Must be consumed
+         * inside a transaction and closed.
+         */
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+        @Query("SELECT o.id AS ownerId, COUNT(c) AS lowStockCount " +
+                        "FROM Consignment c JOIN c.product p JOIN p.owner o " +
+                        "JOIN NotificationPreference np ON np.user = o " +
+                        "WHERE np.weeklySummaryEnabled = true " +
+                        "AND c.status = com.ahmadramadhan.mudahtitip.consignment.ConsignmentStatus.ACTIVE " +
+                        "AND c.currentQuantity <= np.lowStockThreshold " +
+                        "GROUP BY o.id " +
+                        "ORDER BY o.id")
+        Stream<OwnerLowStockCount> streamWeeklySummaryLowStock();
+
+        /**
+         * Consignment counts for the admin dashboard in one pass over the
+         * table. Expiring counts active consignments with an expiry date
+         * before {@code expiringBefore}.
+         */
+        @Query("SELECT COUNT(c) AS total, " +
+                        "COALESCE(SUM(CASE WHEN c.status = 'ACTIVE' THEN 1 ELSE 0 END), 0) AS active, " +
+                        "COALESCE(SUM(CASE WHEN c.status = 'ACTIVE' AND c.expiryDate < :expiringBefore " +
+                        "THEN 1 ELSE 0 END), 0) AS expiring " +
+                        "FROM Consignment c")
+        ConsignmentCounts countForPlatform(@Param("expiringBefore") LocalDate expiringBefore);
+
+        /**
+         * Consignment counts for several consignors' products in one grouped
+         * query. Consignors without consignments are left out.
+         */
+        @Query("SELECT p.owner.id AS ownerId, COUNT(c) AS consignmentCount " +
+                        "FROM Consignment c JOIN c.product p " +
+                        "WHERE p.owner.id IN :ownerIds " +
+                        "GROUP BY p.owner.id")
+        List<OwnerConsignmentCount> countByProductOwnerIds(@Param("ownerIds") Collection<Long> ownerIds);
+
+        /**
+         * Consignment and distinct product counts for several shops in one
+         * grouped query. Shops without consignments are left out.
+         */
+        @Query("SELECT c.shop.id AS shopId, COUNT(DISTINCT c.product.id) AS productCount, " +
+                        "COUNT(c) AS consignmentCount " +
+                        "FROM Consignment c " +
+                        "WHERE c.shop.id IN :shopIds " +
+                        "GROUP BY c.shop.id")
+        List<ShopConsignmentCount> countByShopIds(@Param("shopIds") Collection<Long> shopIds);
 }
@@ -1,5 +1,6 @@
 package com.ahmadramadhan.mudahtitip.consignment;
 
+import com.ahmadramadhan.mudahtitip.admin.PlatformMetricsSnapshot;
 import com.ahmadramadhan.mudahtitip.agreement.AgreementRepository;
 import com.ahmadramadhan.mudahtitip.agreement.AgreementStatus;
 import com.ahmadramadhan.mudahtitip.auth.User;
@@ -29,6 +30,7 @@ public class ConsignmentService {
     private final ShopRepository shopRepository;
     private final MessageService messageService;
     private final AgreementRepository agreementRepository;
+    private final PlatformMetricsSnapshot platformMetricsSnapshot;
 
     /**
      * Create a new consignment.
@@ -37,13 +39,16 @@ public class ConsignmentService {
      */
     @Transactional
     public Consignment createConsignment(ConsignmentRequest request, User currentUser) {
+        Consignment consignment;
         if (currentUser.getRole() == UserRole.SHOP_OWNER) {
-            return createConsignmentByShopOwner(request, currentUser);
+            consignment = createConsignmentByShopOwner(request, currentUser);
         } else if (currentUser.getRole() == UserRole.CONSIGNOR) {
-            return createConsignmentByConsignor(request, currentUser);
+            consignment = createConsignmentByConsignor(request, currentUser);
         } else {
             throw new IllegalArgumentException(messageService.getMessage("consignment.role.invalid"));
         }
+        platformMetricsSnapshot.recordWrites(1);
+        return consignment;
     }
 
     /**
@@ -176,28 +181,29 @@ public class ConsignmentService {
         }
 
         consignment.setStatus(newStatus);
-        return consignmentRepository.save(consignment);
+        consignment = consignmentRepository.save(consignment);
+        platformMetricsSnapshot.recordWrites(1);
+        return consignment;
     }
 
     /**
      * Reduce stock after a sale.
+     * Uses a single conditional UPDATE so concurrent sales of the same
+     * consignment can never oversell; the row stays locked until the
+     * surrounding transaction commits. Marks the consignment COMPLETED when
+     * the last unit is sold.
+     * 
+     * Any managed instance of the consignment is stale afterwards; reload it
+     * with {@link #getById(Long)} in a fresh persistence context if needed.
      */
     @Transactional
     public void reduceStock(Long consignmentId, int quantity) {
-        Consignment consignment = getById(consignmentId);
-
-        if (consignment.getCurrentQuantity() < quantity) {
-            throw new IllegalArgumentException(messageService.getMessage("consignment.stock.insufficient"));
-        }
-
-        consignment.setCurrentQuantity(consignment.getCurrentQuantity() - quantity);
-
-        // Auto-complete if all sold
-        if (consignment.getCurrentQuantity() == 0) {
-            consignment.setStatus(ConsignmentStatus.COMPLETED);
+        if (consignmentRepository.decrementStock(consignmentId, quantity) == 0) {
+            Consignment consignment = getById(consignmentId);
+            throw new IllegalArgumentException(
+                    messageService.getMessage("consignment.stock.insufficient.detail",
+                            consignment.getCurrentQuantity(), quantity));
         }
-
-        consignmentRepository.save(consignment);
     }
 
     /**
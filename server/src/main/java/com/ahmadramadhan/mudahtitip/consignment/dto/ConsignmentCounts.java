@@ -0,0 +1,13 @@
+package com.ahmadramadhan.mudahtitip.consignment.dto;
+
+/**
+ * Projection for platform-wide consignment counts.
+ */
+public interface ConsignmentCounts {
+
+    Long getTotal();
+
+    Long getActive();
+
+    Long getExpiring();
+}
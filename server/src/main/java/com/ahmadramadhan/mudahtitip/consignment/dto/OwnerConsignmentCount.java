@@ -0,0 +1,11 @@
+package com.ahmadramadhan.mudahtitip.consignment.dto;
+
+/**
+ * Projection for the number of consignments of a consignor's products.
+ */
+public interface OwnerConsignmentCount {
+
+    Long getOwnerId();
+
+    Long getConsignmentCount();
+}
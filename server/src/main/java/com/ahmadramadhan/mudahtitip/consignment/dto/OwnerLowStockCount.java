@@ -0,0 +1,11 @@
+package com.ahmadramadhan.mudahtitip.consignment.dto;
+
+/**
+ * Projection for the number of low-stock consignments a consignor has.
+ */
+public interface OwnerLowStockCount {
+
+    Long getOwnerId();
+
+    Long getLowStockCount();
+}
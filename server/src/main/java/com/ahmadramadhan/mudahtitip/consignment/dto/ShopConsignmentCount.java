@@ -0,0 +1,14 @@
+package com.ahmadramadhan.mudahtitip.consignment.dto;
+
+/**
+ * Projection for the consignments at a shop and the distinct products
+ * they hold.
+ */
+public interface ShopConsignmentCount {
+
+    Long getShopId();
+
+    Long getProductCount();
+
+    Long getConsignmentCount();
+}
@@ -6,9 +6,11 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -17,6 +19,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 /**
@@ -25,7 +28,12 @@ import java.time.LocalDateTime;
  * consignment updates.
  */
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", uniqueConstraints = @UniqueConstraint(name = "uk_notifications_recipient_dedup", columnNames = {
+        "recipient_id", "dedup_key" }), indexes = {
+                @Index(name = "idx_notifications_created_at", columnList = "created_at"),
+                @Index(name = "idx_notifications_recipient_read_created", columnList = "recipient_id, is_read, created_at"),
+                @Index(name = "idx_notifications_recipient_created", columnList = "recipient_id, created_at, id")
+        })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -86,4 +94,24 @@ public class Notification extends BaseEntity {
      */
     @Column(name = "read_at")
     private LocalDateTime readAt;
+
+    /**
+     * Identifies a scheduled alert or sale digest within its day, e.g.
+     * STOCK_LOW:42:2026-10-17. Unique per recipient so overlapping scheduler
+     * runs cannot send the same alert twice. Null for other event-driven
+     * notifications.
+     */
+    @Column(name = "dedup_key", length = 100)
+    private String dedupKey;
+
+    /**
+     * Running units total of a sale digest, which is updated in place as
+     * sales come in. Null for other notifications.
+     */
+    @Column(name = "digest_quantity")
+    private Integer digestQuantity;
+
+    public static String dedupKey(NotificationType type, Long referenceId, LocalDate day) {
+        return type.name() + ":" + referenceId + ":" + day;
+    }
 }
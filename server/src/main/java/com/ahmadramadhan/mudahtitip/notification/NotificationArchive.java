@@ -0,0 +1,58 @@
+package com.ahmadramadhan.mudahtitip.notification;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Copy of a notification removed by the retention job.
+ * Keeps the original ID; rows are only ever written by
+ * {@link NotificationArchiveRepository#archiveReadInRange}.
+ */
+@Entity
+@Table(name = "notifications_archive", indexes = @Index(name = "idx_notifications_archive_recipient", columnList = "recipient_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class NotificationArchive {
+
+    @Id
+    private Long id;
+
+    @Column(name = "recipient_id", nullable = false)
+    private Long recipientId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationType type;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(nullable = false, length = 500)
+    private String message;
+
+    @Column(name = "reference_id")
+    private Long referenceId;
+
+    @Column(name = "reference_type")
+    private String referenceType;
+
+    @Column(name = "read_at")
+    private LocalDateTime readAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,31 @@
+package com.ahmadramadhan.mudahtitip.notification;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository for archived notifications.
+ */
+@Repository
+public interface NotificationArchiveRepository extends JpaRepository<NotificationArchive, Long> {
+
+    /**
+     * Copy the read notifications that
+     * {@link NotificationRepository#deleteReadInRange} is about to delete.
+     */
+    @Modifying
+    @Query("INSERT INTO NotificationArchive (id, recipientId, type, title, message, referenceId, referenceType, " +
+            "readAt, createdAt, archivedAt) " +
+            "SELECT n.id, n.recipient.id, n.type, n.title, n.message, n.referenceId, n.referenceType, " +
+            "n.readAt, n.createdAt, LOCAL DATETIME " +
+            "FROM Notification n " +
+            "WHERE n.id >= :fromId AND n.id < :toId AND n.read = true AND n.createdAt < :cutoff")
+    int archiveReadInRange(@Param("fromId") Long fromId,
+            @Param("toId") Long toId,
+            @Param("cutoff") LocalDateTime cutoff);
+}
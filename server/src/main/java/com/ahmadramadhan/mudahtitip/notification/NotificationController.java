@@ -1,18 +1,20 @@
 package com.ahmadramadhan.mudahtitip.notification;
 
-import com.ahmadramadhan.mudahtitip.common.security.JwtUtil;
+import com.ahmadramadhan.mudahtitip.auth.User;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -25,20 +27,20 @@ public class NotificationController {
 
     private final NotificationService notificationService;
     private final NotificationPreferenceService preferenceService;
-    private final JwtUtil jwtUtil;
+    private final NotificationStreamService streamService;
 
     /**
-     * Get all notifications for the current user.
+     * Get the current user's notifications one page at a time, newest first.
+     * Pass the returned {@code nextCursor} as {@code cursor} for the next page.
      */
     @GetMapping
-    public ResponseEntity<List<NotificationResponse>> getNotifications(
-            @RequestHeader("Authorization") String authHeader) {
-        Long userId = extractUserId(authHeader);
-        List<Notification> notifications = notificationService.getNotifications(userId);
-        List<NotificationResponse> responses = notifications.stream()
-                .map(NotificationResponse::fromEntity)
-                .toList();
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<NotificationPageResponse> getNotifications(
+            @AuthenticationPrincipal User currentUser,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        Long userId = currentUser.getId();
+        NotificationPageResponse page = notificationService.getNotificationPage(userId, cursor, size);
+        return ResponseEntity.ok(page);
     }
 
     /**
@@ -46,20 +48,29 @@ public class NotificationController {
      */
     @GetMapping("/unread-count")
     public ResponseEntity<Map<String, Long>> getUnreadCount(
-            @RequestHeader("Authorization") String authHeader) {
-        Long userId = extractUserId(authHeader);
+            @AuthenticationPrincipal User currentUser) {
+        Long userId = currentUser.getId();
         long count = notificationService.getUnreadCount(userId);
         return ResponseEntity.ok(Map.of("count", count));
     }
 
+    /**
+     * Stream new notifications and unread counts as Server-Sent Events.
+     * Replaces polling the list and unread-count endpoints.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@AuthenticationPrincipal User currentUser) {
+        return streamService.subscribe(currentUser.getId());
+    }
+
     /**
      * Mark a notification as read.
      */
     @PutMapping("/{id}/read")
     public ResponseEntity<Void> markAsRead(
             @PathVariable Long id,
-            @RequestHeader("Authorization") String authHeader) {
-        Long userId = extractUserId(authHeader);
+            @AuthenticationPrincipal User currentUser) {
+        Long userId = currentUser.getId();
         notificationService.markAsRead(id, userId);
         return ResponseEntity.ok().build();
     }
@@ -69,8 +80,8 @@ public class NotificationController {
      */
     @PutMapping("/read-all")
     public ResponseEntity<Map<String, Integer>> markAllAsRead(
-            @RequestHeader("Authorization") String authHeader) {
-        Long userId = extractUserId(authHeader);
+            @AuthenticationPrincipal User currentUser) {
+        Long userId = currentUser.getId();
         int count = notificationService.markAllAsRead(userId);
         return ResponseEntity.ok(Map.of("markedCount", count));
     }
@@ -82,8 +93,8 @@ public class NotificationController {
      */
     @GetMapping("/preferences")
     public ResponseEntity<NotificationPreferenceDto> getPreferences(
-            @RequestHeader("Authorization") String authHeader) {
-        Long userId = extractUserId(authHeader);
+            @AuthenticationPrincipal User currentUser) {
+        Long userId = currentUser.getId();
         NotificationPreferenceDto dto = preferenceService.getPreferencesDto(userId);
         return ResponseEntity.ok(dto);
     }
@@ -93,15 +104,10 @@ public class NotificationController {
      */
     @PutMapping("/preferences")
     public ResponseEntity<NotificationPreferenceDto> updatePreferences(
-            @RequestHeader("Authorization") String authHeader,
+            @AuthenticationPrincipal User currentUser,
             @Valid @RequestBody NotificationPreferenceDto dto) {
-        Long userId = extractUserId(authHeader);
+        Long userId = currentUser.getId();
         NotificationPreferenceDto updated = preferenceService.updatePreferences(userId, dto);
         return ResponseEntity.ok(updated);
     }
-
-    private Long extractUserId(String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        return jwtUtil.extractUserId(token);
-    }
 }
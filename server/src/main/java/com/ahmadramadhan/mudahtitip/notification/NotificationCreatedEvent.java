@@ -0,0 +1,8 @@
+package com.ahmadramadhan.mudahtitip.notification;
+
+/**
+ * Published when a notification is saved. Listeners run after the
+ * surrounding transaction commits.
+ */
+public record NotificationCreatedEvent(Long recipientId, Notification notification) {
+}
@@ -0,0 +1,212 @@
+package com.ahmadramadhan.mudahtitip.notification;
+
+import com.ahmadramadhan.mudahtitip.common.scheduling.JobLockService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers queued notifications off the request path.
+ * 
+ * Business transactions write an outbox row and publish
+ * {@link NotificationQueuedEvent}. After commit the row ID goes into a
+ * bounded in-memory queue, and a single writer thread turns queued rows into
+ * notifications in batches of up to {@code batch-size}, or whatever arrived
+ * within {@code flush-interval}. When the queue is full the ID is not queued
+ * and the request carries on; the row stays in the outbox and the sweep
+ * delivers it later. The sweep also recovers rows queued by an instance that
+ * crashed before writing them.
+ * 
+ * A batch that fails is retried one entry at a time, so one bad entry (e.g.
+ * for a deleted recipient) cannot hold back the others. Each failure is
+ * counted on the entry; after {@code max-attempts} it is dead-lettered and
+ * the sweep skips it.
+ */
+@Component
+@Slf4j
+public class NotificationDispatcher {
+
+    static final String SWEEP_JOB = "notification.outbox-sweep";
+
+    private final NotificationService notificationService;
+    private final NotificationOutboxRepository notificationOutboxRepository;
+    private final JobLockService jobLockService;
+    private final BlockingQueue<Long> queue;
+    private final Counter overflowCounter;
+    private final Counter deadLetterCounter;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Duration sweepAfter;
+    private final int maxAttempts;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public NotificationDispatcher(
+            NotificationService notificationService,
+            NotificationOutboxRepository notificationOutboxRepository,
+            JobLockService jobLockService,
+            MeterRegistry meterRegistry,
+            @Value("${notification.dispatch.queue-capacity:10000}") int queueCapacity,
+            @Value("${notification.dispatch.batch-size:100}") int batchSize,
+            @Value("${notification.dispatch.flush-interval:200ms}") Duration flushInterval,
+            @Value("${notification.dispatch.sweep-after:1m}") Duration sweepAfter,
+            @Value("${notification.dispatch.max-attempts:5}") int maxAttempts) {
+        this.notificationService = notificationService;
+        this.notificationOutboxRepository = notificationOutboxRepository;
+        this.jobLockService = jobLockService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.sweepAfter = sweepAfter;
+        this.maxAttempts = maxAttempts;
+        this.overflowCounter = meterRegistry.counter("notification.dispatch.overflow");
+        this.deadLetterCounter = meterRegistry.counter("notification.dispatch.dead-letter");
+        meterRegistry.gaugeCollectionSize("notification.dispatch.queue.size", List.of(), queue);
+
+        this.writer = new Thread(this::writeLoop, "notification-writer");
+        this.writer.setDaemon(true);
+    }
+
+    @PostConstruct
+    void start() {
+        writer.start();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationQueued(NotificationQueuedEvent event) {
+        if (!queue.offer(event.outboxId())) {
+            overflowCounter.increment();
+            log.debug("Notification queue full, outbox entry {} left for the sweep", event.outboxId());
+        }
+    }
+
+    /**
+     * Deliver outbox entries that have waited longer than {@code sweep-after}.
+     */
+    @Scheduled(fixedDelayString = "${notification.dispatch.sweep-interval:1m}")
+    public void sweepOutbox() {
+        jobLockService.runExclusive(SWEEP_JOB, this::runSweep);
+    }
+
+    private void runSweep() {
+        LocalDateTime before = LocalDateTime.now().minus(sweepAfter);
+        PageRequest page = PageRequest.of(0, batchSize);
+
+        // Walk forward by ID so each entry is tried at most once per sweep
+        long afterId = 0;
+        int delivered = 0;
+        List<Long> ids;
+        do {
+            ids = notificationOutboxRepository.findIdsToSweep(before, afterId, maxAttempts, page);
+            if (!ids.isEmpty()) {
+                delivered += deliver(ids);
+                afterId = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == batchSize);
+
+        if (delivered > 0) {
+            log.info("Outbox sweep delivered {} notification(s)", delivered);
+        }
+    }
+
+    /**
+     * Deliver a batch, falling back to one entry at a time if it fails.
+     */
+    private int deliver(List<Long> ids) {
+        try {
+            return notificationService.deliverQueued(ids);
+        } catch (RuntimeException e) {
+            if (ids.size() == 1) {
+                recordFailure(ids.get(0), e);
+                return 0;
+            }
+            log.warn("Failed to deliver {} queued notification(s), retrying one at a time: {}",
+                    ids.size(), e.getMessage());
+        }
+
+        int delivered = 0;
+        for (Long id : ids) {
+            try {
+                delivered += notificationService.deliverQueued(List.of(id));
+            } catch (RuntimeException e) {
+                recordFailure(id, e);
+            }
+        }
+        return delivered;
+    }
+
+    private void recordFailure(Long id, RuntimeException failure) {
+        String error = String.valueOf(failure.getMessage());
+        try {
+            notificationOutboxRepository.recordFailure(id, error.length() > 500 ? error.substring(0, 500) : error);
+            Integer attempts = notificationOutboxRepository.findAttemptsById(id);
+            if (attempts != null && attempts >= maxAttempts) {
+                deadLetterCounter.increment();
+                log.error("Outbox entry {} dead-lettered after {} attempt(s): {}", id, attempts, error);
+                return;
+            }
+        } catch (RuntimeException e) {
+            // The entry stays as it was and is retried by the sweep
+            log.warn("Failed to record delivery failure of outbox entry {}: {}", id, e.getMessage());
+        }
+        log.warn("Failed to deliver outbox entry {}: {}", id, error);
+    }
+
+    private void writeLoop() {
+        List<Long> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + flushInterval.toNanos();
+                while (batch.size() < batchSize) {
+                    Long next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                // Anything still in memory stays in the outbox for the sweep
+                break;
+            }
+        }
+    }
+
+    private void flush(List<Long> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            deliver(batch);
+        } catch (RuntimeException e) {
+            // Rows stay in the outbox and are retried by the sweep
+            log.warn("Failed to deliver {} queued notification(s): {}", batch.size(), e.getMessage());
+        } finally {
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+}
@@ -0,0 +1,74 @@
+package com.ahmadramadhan.mudahtitip.notification;
+
+import com.ahmadramadhan.mudahtitip.common.entity.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A notification queued by a business transaction and not yet delivered.
+ * 
+ * Written in the same transaction as the event it describes, so it commits
+ * or rolls back with it. {@link NotificationDispatcher} turns entries into
+ * notifications in batches and deletes them. Entries left behind by a crash
+ * or a full queue are picked up by its sweep. Entries that keep failing are
+ * dead-lettered: left in place with their last error and no longer swept.
+ */
+@Entity
+@Table(name = "notification_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationOutbox extends BaseEntity {
+
+    @Column(name = "recipient_id", nullable = false)
+    private Long recipientId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationType type;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(nullable = false, length = 500)
+    private String message;
+
+    @Column(name = "reference_id")
+    private Long referenceId;
+
+    @Column(name = "reference_type")
+    private String referenceType;
+
+    /**
+     * Digest key for entries that are merged into one updatable notification
+     * instead of creating their own, e.g. SALE_RECORDED:42:2026-10-17.
+     */
+    @Column(name = "dedup_key", length = 100)
+    private String dedupKey;
+
+    /**
+     * Units added to the digest's running total.
+     */
+    @Column(name = "quantity")
+    private Integer quantity;
+
+    /**
+     * Failed delivery attempts so far.
+     */
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+}
@@ -0,0 +1,59 @@
+package com.ahmadramadhan.mudahtitip.notification;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for queued notifications.
+ */
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    /**
+     * Lock entries for delivery. Entries already delivered by another
+     * transaction are gone once the lock is granted, so each entry is
+     * delivered once.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM NotificationOutbox o WHERE o.id IN :ids ORDER BY o.id")
+    List<NotificationOutbox> lockByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * IDs after {@code afterId} of entries still waiting since before a
+     * point in time, skipping dead-lettered ones.
+     */
+    @Query("SELECT o.id FROM NotificationOutbox o " +
+            "WHERE o.createdAt < :before AND o.id > :afterId AND o.attempts < :maxAttempts " +
+            "ORDER BY o.id")
+    List<Long> findIdsToSweep(@Param("before") LocalDateTime before,
+            @Param("afterId") Long afterId,
+            @Param("maxAttempts") int maxAttempts,
+            Pageable pageable);
+
+    /**
+     * Count a failed delivery attempt in its own transaction, outside the
+     * one that failed.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationOutbox o SET o.attempts = o.attempts + 1, o.lastError = :error, " +
+            "o.updatedAt = CURRENT_TIMESTAMP WHERE o.id = :id")
+    int recordFailure(@Param("id") Long id, @Param("error") String error);
+
+    /**
+     * Failed delivery attempts of an entry, or null once it is delivered.
+     */
+    @Query("SELECT o.attempts FROM NotificationOutbox o WHERE o.id = :id")
+    Integer findAttemptsById(@Param("id") Long id);
+}
@@ -0,0 +1,21 @@
+package com.ahmadramadhan.mudahtitip.notification;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a user's notifications, newest first.
+ * {@code nextCursor} is null on the last page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationPageResponse {
+    private List<NotificationResponse> items;
+    private String nextCursor;
+}
@@ -28,6 +28,15 @@ import lombok.Setter;
 @Builder
 public class NotificationPreference extends BaseEntity {
 
+    /**
+     * Defaults for users without a preferences row. Set-based scheduler
+     * queries apply the same values through COALESCE.
+     */
+    public static final int DEFAULT_LOW_STOCK_THRESHOLD = 5;
+    public static final int DEFAULT_EXPIRY_REMINDER_DAYS = 7;
+    public static final int MIN_EXPIRY_REMINDER_DAYS = 1;
+    public static final int MAX_EXPIRY_REMINDER_DAYS = 30;
+
     /**
      * User this preference belongs to.
      */
@@ -58,7 +67,7 @@ public class NotificationPreference extends BaseEntity {
     @Min(1)
     @Max(100)
     @Column(name = "low_stock_threshold", nullable = false)
-    private Integer lowStockThreshold = 5;
+    private Integer lowStockThreshold = DEFAULT_LOW_STOCK_THRESHOLD;
 
     /**
      * Receive weekly stock summary (opt-in).
@@ -85,6 +94,14 @@ public class NotificationPreference extends BaseEntity {
     @Column(name = "sales_notifications_enabled", nullable = false)
     private Boolean salesNotificationsEnabled = true;
 
+    /**
+     * Merge a day's sales of one consignment into a single digest
+     * notification instead of one per sale.
+     */
+    @Builder.Default
+    @Column(name = "sale_digest_enabled", nullable = false)
+    private Boolean saleDigestEnabled = true;
+
     // ===== Expiry Notifications =====
 
     /**
@@ -98,10 +115,10 @@ public class NotificationPreference extends BaseEntity {
      * Days before expiry to send reminder.
      */
     @Builder.Default
-    @Min(1)
-    @Max(30)
+    @Min(MIN_EXPIRY_REMINDER_DAYS)
+    @Max(MAX_EXPIRY_REMINDER_DAYS)
     @Column(name = "expiry_reminder_days", nullable = false)
-    private Integer expiryReminderDays = 7;
+    private Integer expiryReminderDays = DEFAULT_EXPIRY_REMINDER_DAYS;
 
     // ===== Financial Notifications =====
 
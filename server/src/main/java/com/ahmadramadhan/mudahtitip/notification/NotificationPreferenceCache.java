@@ -0,0 +1,65 @@
+package com.ahmadramadhan.mudahtitip.notification;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Bounded cache of notification preference snapshots keyed by user ID.
+ * 
+ * A miss reads the preferences row; users without one get
+ * {@link NotificationPreferenceSnapshot#DEFAULTS} and nothing is written.
+ * Hit, miss and eviction counts are exported as
+ * {@code cache.*{cache=notification.preferences}}.
+ */
+@Component
+public class NotificationPreferenceCache {
+
+    private final NotificationPreferenceRepository preferenceRepository;
+    private final Cache<Long, NotificationPreferenceSnapshot> cache;
+
+    public NotificationPreferenceCache(
+            NotificationPreferenceRepository preferenceRepository,
+            MeterRegistry meterRegistry,
+            @Value("${notification.preference-cache.max-size:50000}") long maxSize,
+            @Value("${notification.preference-cache.ttl:30m}") Duration ttl) {
+        this.preferenceRepository = preferenceRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "notification.preferences");
+    }
+
+    public NotificationPreferenceSnapshot get(Long userId) {
+        return cache.get(userId, id -> preferenceRepository.findByUserId(id)
+                .map(NotificationPreferenceSnapshot::from)
+                .orElse(NotificationPreferenceSnapshot.DEFAULTS));
+    }
+
+    /**
+     * Drop a cached snapshot. Inside a transaction the eviction is repeated
+     * after commit, so a read racing with the update cannot re-cache the old
+     * values.
+     */
+    public void evict(Long userId) {
+        cache.invalidate(userId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+    }
+}
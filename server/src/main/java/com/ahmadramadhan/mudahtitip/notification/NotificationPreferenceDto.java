@@ -30,6 +30,7 @@ public class NotificationPreferenceDto {
 
     // Sales notifications
     private Boolean salesNotificationsEnabled;
+    private Boolean saleDigestEnabled;
 
     // Expiry notifications
     private Boolean expiryRemindersEnabled;
@@ -52,12 +53,31 @@ public class NotificationPreferenceDto {
                 .weeklySummaryEnabled(entity.getWeeklySummaryEnabled())
                 .agreementUpdatesEnabled(entity.getAgreementUpdatesEnabled())
                 .salesNotificationsEnabled(entity.getSalesNotificationsEnabled())
+                .saleDigestEnabled(entity.getSaleDigestEnabled())
                 .expiryRemindersEnabled(entity.getExpiryRemindersEnabled())
                 .expiryReminderDays(entity.getExpiryReminderDays())
                 .payoutNotificationsEnabled(entity.getPayoutNotificationsEnabled())
                 .build();
     }
 
+    /**
+     * Create DTO from a cached snapshot.
+     */
+    public static NotificationPreferenceDto fromSnapshot(NotificationPreferenceSnapshot snapshot) {
+        return NotificationPreferenceDto.builder()
+                .stockLowEnabled(snapshot.stockLowEnabled())
+                .stockOutEnabled(snapshot.stockOutEnabled())
+                .lowStockThreshold(snapshot.lowStockThreshold())
+                .weeklySummaryEnabled(snapshot.weeklySummaryEnabled())
+                .agreementUpdatesEnabled(snapshot.agreementUpdatesEnabled())
+                .salesNotificationsEnabled(snapshot.salesNotificationsEnabled())
+                .saleDigestEnabled(snapshot.saleDigestEnabled())
+                .expiryRemindersEnabled(snapshot.expiryRemindersEnabled())
+                .expiryReminderDays(snapshot.expiryReminderDays())
+                .payoutNotificationsEnabled(snapshot.payoutNotificationsEnabled())
+                .build();
+    }
+
     /**
      * Apply DTO values to entity (only non-null fields).
      */
@@ -74,6 +94,8 @@ public class NotificationPreferenceDto {
             entity.setAgreementUpdatesEnabled(agreementUpdatesEnabled);
         if (salesNotificationsEnabled != null)
             entity.setSalesNotificationsEnabled(salesNotificationsEnabled);
+        if (saleDigestEnabled != null)
+            entity.setSaleDigestEnabled(saleDigestEnabled);
         if (expiryRemindersEnabled != null)
             entity.setExpiryRemindersEnabled(expiryRemindersEnabled);
         if (expiryReminderDays != null)
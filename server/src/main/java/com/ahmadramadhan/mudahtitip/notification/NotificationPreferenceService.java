@@ -9,6 +9,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Service for managing notification preferences.
+ * Reads are served from {@link NotificationPreferenceCache}.
  */
 @Service
 @RequiredArgsConstructor
@@ -17,37 +18,30 @@ public class NotificationPreferenceService {
 
     private final NotificationPreferenceRepository preferenceRepository;
     private final UserRepository userRepository;
+    private final NotificationPreferenceCache preferenceCache;
 
     /**
-     * Get preferences for a user, creating default if not exists.
-     */
-    @Transactional
-    public NotificationPreference getOrCreatePreferences(Long userId) {
-        return preferenceRepository.findByUserId(userId)
-                .orElseGet(() -> {
-                    User user = userRepository.findById(userId)
-                            .orElseThrow(() -> new IllegalArgumentException("User not found"));
-                    NotificationPreference pref = NotificationPreference.createDefault(user);
-                    return preferenceRepository.save(pref);
-                });
-    }
-
-    /**
-     * Get preferences DTO for a user.
+     * Get preferences DTO for a user. Users who never saved preferences get
+     * the defaults without a row being created.
      */
     public NotificationPreferenceDto getPreferencesDto(Long userId) {
-        NotificationPreference pref = getOrCreatePreferences(userId);
-        return NotificationPreferenceDto.fromEntity(pref);
+        return NotificationPreferenceDto.fromSnapshot(preferenceCache.get(userId));
     }
 
     /**
-     * Update preferences for a user.
+     * Update preferences for a user, creating the row on first save.
      */
     @Transactional
     public NotificationPreferenceDto updatePreferences(Long userId, NotificationPreferenceDto dto) {
-        NotificationPreference pref = getOrCreatePreferences(userId);
+        NotificationPreference pref = preferenceRepository.findByUserId(userId)
+                .orElseGet(() -> {
+                    User user = userRepository.findById(userId)
+                            .orElseThrow(() -> new IllegalArgumentException("User not found"));
+                    return NotificationPreference.createDefault(user);
+                });
         dto.applyTo(pref);
         pref = preferenceRepository.save(pref);
+        preferenceCache.evict(userId);
         log.info("Updated notification preferences for user {}", userId);
         return NotificationPreferenceDto.fromEntity(pref);
     }
@@ -56,38 +50,20 @@ public class NotificationPreferenceService {
      * Check if a specific notification type is enabled for a user.
      */
     public boolean isNotificationEnabled(Long userId, NotificationType type) {
-        NotificationPreference pref = getOrCreatePreferences(userId);
-
-        return switch (type) {
-            case STOCK_LOW -> pref.getStockLowEnabled();
-            case STOCK_OUT -> pref.getStockOutEnabled();
-            case STOCK_WEEKLY_SUMMARY -> pref.getWeeklySummaryEnabled();
-            case AGREEMENT_PROPOSED, AGREEMENT_ACCEPTED, AGREEMENT_REJECTED,
-                    AGREEMENT_COUNTERED, AGREEMENT_EXTENDED, AGREEMENT_DISCONTINUED ->
-                pref.getAgreementUpdatesEnabled();
-            case SALE_RECORDED -> pref.getSalesNotificationsEnabled();
-            case CONSIGNMENT_EXPIRING, CONSIGNMENT_EXPIRED, CONSIGNMENT_COMPLETED ->
-                pref.getExpiryRemindersEnabled();
-            case PAYOUT_READY -> pref.getPayoutNotificationsEnabled();
-            // Complaints always enabled (important for quality control)
-            case COMPLAINT_RECEIVED, COMPLAINT_RESOLVED -> true;
-        };
-
+        return preferenceCache.get(userId).isEnabled(type);
     }
 
     /**
      * Get low stock threshold for a user.
      */
     public int getLowStockThreshold(Long userId) {
-        NotificationPreference pref = getOrCreatePreferences(userId);
-        return pref.getLowStockThreshold();
+        return preferenceCache.get(userId).lowStockThreshold();
     }
 
     /**
      * Get expiry reminder days for a user.
      */
     public int getExpiryReminderDays(Long userId) {
-        NotificationPreference pref = getOrCreatePreferences(userId);
-        return pref.getExpiryReminderDays();
+        return preferenceCache.get(userId).expiryReminderDays();
     }
 }
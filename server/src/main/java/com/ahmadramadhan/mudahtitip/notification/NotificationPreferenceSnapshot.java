@@ -0,0 +1,57 @@
+package com.ahmadramadhan.mudahtitip.notification;
+
+/**
+ * Immutable copy of a user's notification preferences, safe to share
+ * between threads through {@link NotificationPreferenceCache}.
+ */
+public record NotificationPreferenceSnapshot(
+        boolean stockLowEnabled,
+        boolean stockOutEnabled,
+        int lowStockThreshold,
+        boolean weeklySummaryEnabled,
+        boolean agreementUpdatesEnabled,
+        boolean salesNotificationsEnabled,
+        boolean saleDigestEnabled,
+        boolean expiryRemindersEnabled,
+        int expiryReminderDays,
+        boolean payoutNotificationsEnabled) {
+
+    /**
+     * Preferences of a user who never saved any.
+     */
+    public static final NotificationPreferenceSnapshot DEFAULTS = from(NotificationPreference.createDefault(null));
+
+    public static NotificationPreferenceSnapshot from(NotificationPreference pref) {
+        return new NotificationPreferenceSnapshot(
+                pref.getStockLowEnabled(),
+                pref.getStockOutEnabled(),
+                pref.getLowStockThreshold(),
+                pref.getWeeklySummaryEnabled(),
+                pref.getAgreementUpdatesEnabled(),
+                pref.getSalesNotificationsEnabled(),
+                pref.getSaleDigestEnabled(),
+                pref.getExpiryRemindersEnabled(),
+                pref.getExpiryReminderDays(),
+                pref.getPayoutNotificationsEnabled());
+    }
+
+    /**
+     * Check if a specific notification type is enabled.
+     */
+    public boolean isEnabled(NotificationType type) {
+        return switch (type) {
+            case STOCK_LOW -> stockLowEnabled;
+            case STOCK_OUT -> stockOutEnabled;
+            case STOCK_WEEKLY_SUMMARY -> weeklySummaryEnabled;
+            case AGREEMENT_PROPOSED, AGREEMENT_ACCEPTED, AGREEMENT_REJECTED,
+                    AGREEMENT_COUNTERED, AGREEMENT_EXTENDED, AGREEMENT_DISCONTINUED ->
+                agreementUpdatesEnabled;
+            case SALE_RECORDED -> salesNotificationsEnabled;
+            case CONSIGNMENT_EXPIRING, CONSIGNMENT_EXPIRED, CONSIGNMENT_COMPLETED ->
+                expiryRemindersEnabled;
+            case PAYOUT_READY -> payoutNotificationsEnabled;
+            // Complaints always enabled (important for quality control)
+            case COMPLAINT_RECEIVED, COMPLAINT_RESOLVED -> true;
+        };
+    }
+}
@@ -0,0 +1,8 @@
+package com.ahmadramadhan.mudahtitip.notification;
+
+/**
+ * Published when a notification is written to the outbox. Listeners run
+ * after the surrounding transaction commits.
+ */
+public record NotificationQueuedEvent(Long outboxId) {
+}
@@ -1,13 +1,19 @@
 package com.ahmadramadhan.mudahtitip.notification;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Repository for Notification entity.
@@ -16,9 +22,21 @@ import java.util.List;
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
 
     /**
-     * Find all notifications for a user, ordered by creation date (newest first).
+     * First page of a user's notifications, newest first.
      */
-    List<Notification> findByRecipientIdOrderByCreatedAtDesc(Long recipientId);
+    List<Notification> findByRecipientIdOrderByCreatedAtDescIdDesc(Long recipientId, Pageable pageable);
+
+    /**
+     * Next page of a user's notifications, strictly after the cursor position.
+     * Seeks on (recipient_id, created_at), so every page costs the same.
+     */
+    @Query("SELECT n FROM Notification n WHERE n.recipient.id = :recipientId " +
+            "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findPageAfter(@Param("recipientId") Long recipientId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable);
 
     /**
      * Find unread notifications for a user.
@@ -30,6 +48,25 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
      */
     long countByRecipientIdAndReadFalse(Long recipientId);
 
+    /**
+     * Dedup keys of notifications of the given types created since a point
+     * in time.
+     */
+    @Query("SELECT n.dedupKey FROM Notification n " +
+            "WHERE n.dedupKey IS NOT NULL AND n.createdAt >= :since AND n.type IN :types")
+    Set<String> findDedupKeysSince(
+            @Param("since") LocalDateTime since,
+            @Param("types") Collection<NotificationType> types);
+
+    /**
+     * Lock existing digests by key so concurrent deliveries add to their
+     * totals one after the other. Seeks on (recipient_id, dedup_key).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT n FROM Notification n WHERE n.recipient.id IN :recipientIds AND n.dedupKey IN :keys")
+    List<Notification> lockDigests(@Param("recipientIds") Collection<Long> recipientIds,
+            @Param("keys") Collection<String> keys);
+
     /**
      * Mark all notifications as read for a user.
      */
@@ -37,6 +74,30 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     @Query("UPDATE Notification n SET n.read = true, n.readAt = CURRENT_TIMESTAMP WHERE n.recipient.id = :recipientId AND n.read = false")
     int markAllAsReadByRecipientId(@Param("recipientId") Long recipientId);
 
+    /**
+     * Lowest notification ID, where the retention job starts.
+     */
+    @Query("SELECT MIN(n.id) FROM Notification n")
+    Long findMinId();
+
+    /**
+     * Highest ID of a notification created before a point in time, where the
+     * retention job stops.
+     */
+    @Query("SELECT MAX(n.id) FROM Notification n WHERE n.createdAt < :cutoff")
+    Long findMaxIdCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Delete read notifications older than the cutoff within an ID range.
+     * Bounded by primary key so each call locks a small, contiguous range.
+     */
+    @Modifying
+    @Query("DELETE FROM Notification n " +
+            "WHERE n.id >= :fromId AND n.id < :toId AND n.read = true AND n.createdAt < :cutoff")
+    int deleteReadInRange(@Param("fromId") Long fromId,
+            @Param("toId") Long toId,
+            @Param("cutoff") LocalDateTime cutoff);
+
     /**
      * Delete all notifications (dev only).
      */
@@ -0,0 +1,96 @@
+package com.ahmadramadhan.mudahtitip.notification;
+
+import com.ahmadramadhan.mudahtitip.common.scheduling.JobLockService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Removes read notifications older than the retention period.
+ * 
+ * Walks the notifications table in primary-key ranges of {@code chunk-size},
+ * deleting each range in its own short transaction so no lock is held for
+ * long. With archiving on, each range is copied to
+ * {@code notifications_archive} in the same transaction before it is
+ * deleted. Unread notifications are never removed.
+ */
+@Component
+@Slf4j
+public class NotificationRetentionJob {
+
+    static final String JOB = "notification.retention";
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationArchiveRepository notificationArchiveRepository;
+    private final JobLockService jobLockService;
+    private final TransactionTemplate transactionTemplate;
+    private final int readRetentionDays;
+    private final int chunkSize;
+    private final boolean archive;
+
+    public NotificationRetentionJob(
+            NotificationRepository notificationRepository,
+            NotificationArchiveRepository notificationArchiveRepository,
+            JobLockService jobLockService,
+            PlatformTransactionManager transactionManager,
+            @Value("${notification.retention.read-days:90}") int readRetentionDays,
+            @Value("${notification.retention.chunk-size:1000}") int chunkSize,
+            @Value("${notification.retention.archive:false}") boolean archive) {
+        this.notificationRepository = notificationRepository;
+        this.notificationArchiveRepository = notificationArchiveRepository;
+        this.jobLockService = jobLockService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readRetentionDays = readRetentionDays;
+        this.chunkSize = chunkSize;
+        this.archive = archive;
+    }
+
+    /**
+     * Purge old read notifications daily at 3:30 AM.
+     */
+    @Scheduled(cron = "${notification.retention.cron:0 30 3 * * *}")
+    public void purgeReadNotifications() {
+        if (readRetentionDays <= 0) {
+            return;
+        }
+        jobLockService.runExclusive(JOB, this::runPurge);
+    }
+
+    private void runPurge() {
+        log.info("Running notification retention (read, older than {} days)...", readRetentionDays);
+        long start = System.currentTimeMillis();
+
+        LocalDateTime cutoff = LocalDate.now().minusDays(readRetentionDays).atStartOfDay();
+        Long minId = notificationRepository.findMinId();
+        Long maxId = notificationRepository.findMaxIdCreatedBefore(cutoff);
+        if (minId == null || maxId == null) {
+            log.info("Notification retention complete. Nothing to purge");
+            return;
+        }
+
+        long purged = 0;
+        for (long fromId = minId; fromId <= maxId; fromId += chunkSize) {
+            long toId = Math.min(fromId + chunkSize, maxId + 1);
+            purged += purgeRange(fromId, toId, cutoff);
+        }
+
+        log.info("Notification retention complete in {} ms. Purged {} notification(s){}",
+                System.currentTimeMillis() - start, purged, archive ? " to the archive" : "");
+    }
+
+    private int purgeRange(long fromId, long toId, LocalDateTime cutoff) {
+        Integer deleted = transactionTemplate.execute(status -> {
+            if (archive) {
+                notificationArchiveRepository.archiveReadInRange(fromId, toId, cutoff);
+            }
+            return notificationRepository.deleteReadInRange(fromId, toId, cutoff);
+        });
+        return deleted != null ? deleted : 0;
+    }
+}
@@ -1,141 +1,235 @@
 package com.ahmadramadhan.mudahtitip.notification;
 
-import com.ahmadramadhan.mudahtitip.auth.User;
+import com.ahmadramadhan.mudahtitip.common.scheduling.JobLockService;
 import com.ahmadramadhan.mudahtitip.consignment.Consignment;
 import com.ahmadramadhan.mudahtitip.consignment.ConsignmentRepository;
-import com.ahmadramadhan.mudahtitip.consignment.ConsignmentStatus;
+import com.ahmadramadhan.mudahtitip.consignment.dto.OwnerLowStockCount;
+import com.ahmadramadhan.mudahtitip.sale.SaleDailyRollupRepository;
+import com.ahmadramadhan.mudahtitip.sale.dto.OwnerProductSalesAggregate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.util.HashSet;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.function.IntSupplier;
+import java.util.stream.Stream;
 
 /**
  * Scheduled jobs for sending notifications.
  * Handles stock monitoring, expiry reminders, and weekly summaries.
+ * Each job runs on one instance at a time (see {@link JobLockService}).
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationScheduler {
 
+    static final String LOW_STOCK_JOB = "notification.low-stock";
+    static final String EXPIRY_JOB = "notification.expiry";
+    static final String WEEKLY_SUMMARY_JOB = "notification.weekly-summary";
+
+    private static final int PAGE_SIZE = 500;
+    private static final int SUMMARY_BATCH_SIZE = 500;
+    private static final int PROGRESS_LOG_INTERVAL = 10_000;
+
     private final ConsignmentRepository consignmentRepository;
+    private final SaleDailyRollupRepository saleDailyRollupRepository;
     private final NotificationService notificationService;
-    private final NotificationPreferenceService preferenceService;
+    private final JobLockService jobLockService;
 
     /**
      * Check for low/out of stock consignments every 6 hours.
      * Runs at 00:00, 06:00, 12:00, 18:00.
+     * 
+     * One query returns only the consignments that need an alert under their
+     * owner's preferences; the alerts are then written in one batch. Each alert
+     * is sent at most once per day.
      */
     @Scheduled(cron = "0 0 */6 * * *")
-    @Transactional(readOnly = true)
     public void checkLowStock() {
-        log.info("Running low stock check...");
-
-        List<Consignment> activeConsignments = consignmentRepository
-                .findByStatus(ConsignmentStatus.ACTIVE);
+        jobLockService.runExclusive(LOW_STOCK_JOB, this::runLowStockCheck);
+    }
 
-        Set<Long> notifiedOutOfStock = new HashSet<>();
-        Set<Long> notifiedLowStock = new HashSet<>();
+    private void runLowStockCheck() {
+        log.info("Running low stock check...");
+        long start = System.currentTimeMillis();
 
-        for (Consignment consignment : activeConsignments) {
-            User consignor = consignment.getProduct().getOwner();
-            if (consignor == null)
-                continue;
+        LocalDate today = LocalDate.now();
+        Set<String> alreadySent = notificationService.getAlertKeysSentOn(today,
+                EnumSet.of(NotificationType.STOCK_LOW, NotificationType.STOCK_OUT));
 
-            int currentQty = consignment.getCurrentQuantity();
+        List<Consignment> alerts = consignmentRepository
+                .findStockAlertCandidates(NotificationPreference.DEFAULT_LOW_STOCK_THRESHOLD)
+                .stream()
+                .filter(c -> !alreadySent.contains(
+                        Notification.dedupKey(NotificationService.stockAlertType(c), c.getId(), today)))
+                .toList();
 
-            // Out of stock check
-            if (currentQty == 0) {
-                if (preferenceService.isNotificationEnabled(consignor.getId(), NotificationType.STOCK_OUT)) {
-                    // Avoid duplicate notifications (check last 24h)
-                    if (!hasRecentNotification(consignor.getId(), consignment.getId(), NotificationType.STOCK_OUT)) {
-                        notificationService.notifyStockOut(consignment);
-                        notifiedOutOfStock.add(consignment.getId());
-                    }
-                }
-            }
-            // Low stock check
-            else {
-                int threshold = preferenceService.getLowStockThreshold(consignor.getId());
-                if (currentQty <= threshold) {
-                    if (preferenceService.isNotificationEnabled(consignor.getId(), NotificationType.STOCK_LOW)) {
-                        if (!hasRecentNotification(consignor.getId(), consignment.getId(),
-                                NotificationType.STOCK_LOW)) {
-                            notificationService.notifyStockLow(consignment, currentQty);
-                            notifiedLowStock.add(consignment.getId());
-                        }
-                    }
-                }
-            }
-        }
+        int sent = sendOnce(() -> notificationService.notifyStockAlerts(alerts, today));
+        long outOfStock = sent == 0 ? 0 : alerts.stream().filter(c -> c.getCurrentQuantity() == 0).count();
 
-        log.info("Low stock check complete. Out of stock: {}, Low stock: {}",
-                notifiedOutOfStock.size(), notifiedLowStock.size());
+        log.info("Low stock check complete in {} ms. Out of stock: {}, Low stock: {}",
+                System.currentTimeMillis() - start, outOfStock, sent - outOfStock);
     }
 
     /**
      * Check for expiring consignments daily at 8 AM.
+     * 
+     * The database matches each consignment's expiry date against today plus
+     * its owner's reminder days. Results are read and written one page at a
+     * time, each in its own transaction, so memory stays flat.
      */
     @Scheduled(cron = "0 0 8 * * *")
-    @Transactional(readOnly = true)
     public void checkExpiringConsignments() {
+        jobLockService.runExclusive(EXPIRY_JOB, this::runExpiryCheck);
+    }
+
+    private void runExpiryCheck() {
         log.info("Running expiry check...");
+        long start = System.currentTimeMillis();
 
-        List<Consignment> activeConsignments = consignmentRepository
-                .findByStatus(ConsignmentStatus.ACTIVE);
+        LocalDate today = LocalDate.now();
+        Set<String> alreadySent = notificationService.getAlertKeysSentOn(today,
+                EnumSet.of(NotificationType.CONSIGNMENT_EXPIRING));
+        LocalDate earliestExpiry = today.plusDays(NotificationPreference.MIN_EXPIRY_REMINDER_DAYS);
+        LocalDate latestExpiry = today.plusDays(NotificationPreference.MAX_EXPIRY_REMINDER_DAYS);
+        Pageable page = PageRequest.of(0, PAGE_SIZE);
 
         int notified = 0;
-
-        for (Consignment consignment : activeConsignments) {
-            if (consignment.getExpiryDate() == null)
-                continue;
-
-            User consignor = consignment.getProduct().getOwner();
-            if (consignor == null)
-                continue;
-
-            if (!preferenceService.isNotificationEnabled(consignor.getId(), NotificationType.CONSIGNMENT_EXPIRING)) {
-                continue;
+        long afterId = 0L;
+        List<Consignment> batch;
+        do {
+            batch = consignmentRepository.findExpiryReminderCandidates(today, earliestExpiry, latestExpiry,
+                    NotificationPreference.DEFAULT_EXPIRY_REMINDER_DAYS, afterId, page);
+            if (batch.isEmpty()) {
+                break;
             }
 
-            int reminderDays = preferenceService.getExpiryReminderDays(consignor.getId());
-            LocalDate reminderDate = consignment.getExpiryDate().minusDays(reminderDays);
+            List<Consignment> due = batch.stream()
+                    .filter(c -> !alreadySent.contains(
+                            Notification.dedupKey(NotificationType.CONSIGNMENT_EXPIRING, c.getId(), today)))
+                    .toList();
+            notified += sendOnce(() -> notificationService.notifyExpiryReminders(due, today));
+            afterId = batch.get(batch.size() - 1).getId();
+        } while (batch.size() == PAGE_SIZE);
 
-            // Only notify on the exact reminder date
-            if (LocalDate.now().equals(reminderDate)) {
-                notificationService.notifyExpiryReminder(consignment, reminderDays);
-                notified++;
-            }
-        }
-
-        log.info("Expiry check complete. Sent {} reminder(s)", notified);
+        log.info("Expiry check complete in {} ms. Sent {} reminder(s)",
+                System.currentTimeMillis() - start, notified);
     }
 
     /**
      * Send weekly summary on Mondays at 9 AM.
+     * 
+     * Covers the previous Monday to Sunday for consignors who opted in. Sales
+     * per product and low-stock counts are streamed from two grouped queries
+     * in consignor order and merged, so only one consignor is held in memory.
+     * Summaries are written in batches, each in its own transaction.
      */
     @Scheduled(cron = "0 0 9 * * MON")
     @Transactional(readOnly = true)
     public void sendWeeklySummary() {
+        jobLockService.runExclusive(WEEKLY_SUMMARY_JOB, this::runWeeklySummary);
+    }
+
+    private void runWeeklySummary() {
         log.info("Running weekly summary generation...");
-        // TODO: Implement weekly summary aggregation
-        // This would aggregate sales data per consignor and send a summary
-        log.info("Weekly summary generation complete (not yet implemented)");
+        long start = System.currentTimeMillis();
+
+        LocalDate today = LocalDate.now();
+        LocalDate weekStart = today.with(TemporalAdjusters.previous(DayOfWeek.MONDAY));
+        LocalDate weekEnd = weekStart.plusDays(6);
+        Set<String> alreadySent = notificationService.getAlertKeysSentOn(today,
+                EnumSet.of(NotificationType.STOCK_WEEKLY_SUMMARY));
+
+        int consignors = 0;
+        int sent = 0;
+        List<WeeklySummary> pending = new ArrayList<>(SUMMARY_BATCH_SIZE);
+
+        try (Stream<OwnerProductSalesAggregate> salesStream = saleDailyRollupRepository
+                .streamWeeklySummarySales(weekStart, weekEnd);
+                Stream<OwnerLowStockCount> lowStockStream = consignmentRepository.streamWeeklySummaryLowStock()) {
+            Iterator<OwnerProductSalesAggregate> salesRows = salesStream.iterator();
+            Iterator<OwnerLowStockCount> lowStockRows = lowStockStream.iterator();
+            OwnerProductSalesAggregate sale = salesRows.hasNext() ? salesRows.next() : null;
+            OwnerLowStockCount lowStock = lowStockRows.hasNext() ? lowStockRows.next() : null;
+
+            while (sale != null || lowStock != null) {
+                Long ownerId = sale == null ? lowStock.getOwnerId()
+                        : lowStock == null ? sale.getOwnerId()
+                        : Math.min(sale.getOwnerId(), lowStock.getOwnerId());
+
+                WeeklySummary summary = WeeklySummary.builder()
+                        .ownerId(ownerId)
+                        .consignorEarning(BigDecimal.ZERO)
+                        .build();
+
+                // Rows are ordered by earnings, so the first one is the top product
+                while (sale != null && sale.getOwnerId().equals(ownerId)) {
+                    if (summary.getTopProductName() == null) {
+                        summary.setTopProductName(sale.getProductName());
+                    }
+                    summary.setSalesCount(summary.getSalesCount() + sale.getSalesCount());
+                    summary.setItemsSold(summary.getItemsSold() + sale.getItemsSold());
+                    summary.setConsignorEarning(summary.getConsignorEarning().add(sale.getConsignorEarning()));
+                    sale = salesRows.hasNext() ? salesRows.next() : null;
+                }
+                if (lowStock != null && lowStock.getOwnerId().equals(ownerId)) {
+                    summary.setLowStockCount(lowStock.getLowStockCount());
+                    lowStock = lowStockRows.hasNext() ? lowStockRows.next() : null;
+                }
+
+                if (!alreadySent.contains(Notification.dedupKey(
+                        NotificationType.STOCK_WEEKLY_SUMMARY, ownerId, weekStart))) {
+                    pending.add(summary);
+                }
+                if (pending.size() == SUMMARY_BATCH_SIZE) {
+                    sent += sendSummaries(pending, weekStart);
+                }
+
+                if (++consignors % PROGRESS_LOG_INTERVAL == 0) {
+                    log.info("Weekly summary progress: {} consignors processed, {} sent, {} ms elapsed",
+                            consignors, sent, System.currentTimeMillis() - start);
+                }
+            }
+        }
+        sent += sendSummaries(pending, weekStart);
+
+        log.info("Weekly summary generation complete in {} ms. Consignors: {}, sent: {}",
+                System.currentTimeMillis() - start, consignors, sent);
+    }
+
+    private int sendSummaries(List<WeeklySummary> pending, LocalDate weekStart) {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        int sent = sendOnce(() -> notificationService.notifyWeeklySummaries(pending, weekStart));
+        pending.clear();
+        return sent;
     }
 
     /**
-     * Check if a recent notification of the same type was already sent.
-     * This prevents duplicate notifications within 24 hours.
+     * Write a batch of alerts. If another instance already wrote some of them,
+     * the dedup constraint rejects the batch and it is skipped.
      */
-    private boolean hasRecentNotification(Long userId, Long referenceId, NotificationType type) {
-        // For now, always return false - implement deduplication later
-        // Could query notification table for recent entries
-        return false;
+    private int sendOnce(IntSupplier send) {
+        try {
+            return send.getAsInt();
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Alert batch already sent by another run, skipping: {}", e.getMostSpecificCause().getMessage());
+            return 0;
+        }
     }
 }
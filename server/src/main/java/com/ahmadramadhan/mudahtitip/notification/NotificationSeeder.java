@@ -16,6 +16,7 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -52,23 +53,26 @@ public class NotificationSeeder implements CommandLineRunner {
 
                 log.info("Seeding unique notifications for {} users...", users.size());
 
+                // Collect everything first so the inserts go out as JDBC batches
+                List<Notification> pending = new ArrayList<>();
                 for (User user : users) {
-                        seedNotificationsForUser(user);
+                        seedNotificationsForUser(user, pending);
                 }
+                notificationRepository.saveAll(pending);
 
                 log.info("Seeded {} notifications", notificationRepository.count());
         }
 
-        private void seedNotificationsForUser(User user) {
+        private void seedNotificationsForUser(User user, List<Notification> pending) {
                 if (user.getRole() == UserRole.CONSIGNOR) {
-                        seedConsignorNotifications(user);
+                        seedConsignorNotifications(user, pending);
                 } else if (user.getRole() == UserRole.SHOP_OWNER) {
-                        seedShopOwnerNotifications(user);
+                        seedShopOwnerNotifications(user, pending);
                 }
                 // Admin users get no notifications in this seed
         }
 
-        private void seedConsignorNotifications(User consignor) {
+        private void seedConsignorNotifications(User consignor, List<Notification> pending) {
                 // Get actual products owned by this consignor
                 List<Product> products = productRepository.findByOwnerId(consignor.getId());
 
@@ -100,7 +104,7 @@ public class NotificationSeeder implements CommandLineRunner {
                                 String shopName = consignment.getShop().getName();
 
                                 if (qty > 0 && qty <= 5) {
-                                        notificationRepository.save(Notification.builder()
+                                        pending.add(Notification.builder()
                                                         .recipient(consignor)
                                                         .type(NotificationType.STOCK_LOW)
                                                         .title("Stok " + product.getName() + " Menipis")
@@ -116,7 +120,7 @@ public class NotificationSeeder implements CommandLineRunner {
                                 // Sale notification
                                 int sold = consignment.getInitialQuantity() - consignment.getCurrentQuantity();
                                 if (sold > 0) {
-                                        notificationRepository.save(Notification.builder()
+                                        pending.add(Notification.builder()
                                                         .recipient(consignor)
                                                         .type(NotificationType.SALE_RECORDED)
                                                         .title("Penjualan " + product.getName())
@@ -130,7 +134,7 @@ public class NotificationSeeder implements CommandLineRunner {
                                 }
                         } else {
                                 // Product without consignment - general product notification
-                                notificationRepository.save(Notification.builder()
+                                pending.add(Notification.builder()
                                                 .recipient(consignor)
                                                 .type(NotificationType.AGREEMENT_PROPOSED)
                                                 .title("Produk Siap Dititipkan")
@@ -147,7 +151,7 @@ public class NotificationSeeder implements CommandLineRunner {
                 // If still need more notifications, add generic ones
                 if (notifCount == 0 && !products.isEmpty()) {
                         Product firstProduct = products.get(0);
-                        notificationRepository.save(Notification.builder()
+                        pending.add(Notification.builder()
                                         .recipient(consignor)
                                         .type(NotificationType.STOCK_LOW)
                                         .title("Cek Stok " + firstProduct.getName())
@@ -159,7 +163,7 @@ public class NotificationSeeder implements CommandLineRunner {
                 }
         }
 
-        private void seedShopOwnerNotifications(User shopOwner) {
+        private void seedShopOwnerNotifications(User shopOwner, List<Notification> pending) {
                 // Get the shop owned by this user
                 Shop shop = shopRepository.findByOwnerId(shopOwner.getId()).orElse(null);
 
@@ -183,7 +187,7 @@ public class NotificationSeeder implements CommandLineRunner {
 
                         // Stock notification
                         if (qty > 0 && qty <= 5) {
-                                notificationRepository.save(Notification.builder()
+                                pending.add(Notification.builder()
                                                 .recipient(shopOwner)
                                                 .type(NotificationType.STOCK_LOW)
                                                 .title("Stok " + product.getName() + " Menipis")
@@ -197,7 +201,7 @@ public class NotificationSeeder implements CommandLineRunner {
                         }
 
                         // Consignment accepted notification
-                        notificationRepository.save(Notification.builder()
+                        pending.add(Notification.builder()
                                         .recipient(shopOwner)
                                         .type(NotificationType.AGREEMENT_ACCEPTED)
                                         .title("Produk Diterima")
@@ -212,7 +216,7 @@ public class NotificationSeeder implements CommandLineRunner {
 
                 // If no consignments, add generic shop notification
                 if (consignments.isEmpty()) {
-                        notificationRepository.save(Notification.builder()
+                        pending.add(Notification.builder()
                                         .recipient(shopOwner)
                                         .type(NotificationType.AGREEMENT_PROPOSED)
                                         .title("Toko Siap Menerima Produk")
@@ -2,15 +2,32 @@ package com.ahmadramadhan.mudahtitip.notification;
 
 import com.ahmadramadhan.mudahtitip.agreement.Agreement;
 import com.ahmadramadhan.mudahtitip.auth.User;
+import com.ahmadramadhan.mudahtitip.auth.UserRepository;
 import com.ahmadramadhan.mudahtitip.consignment.Consignment;
+import com.ahmadramadhan.mudahtitip.consignment.ConsignmentRepository;
 import com.ahmadramadhan.mudahtitip.sale.Sale;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service for managing notifications.
@@ -22,6 +39,18 @@ import java.util.List;
 public class NotificationService {
 
     private final NotificationRepository notificationRepository;
+    private final NotificationOutboxRepository notificationOutboxRepository;
+    private final UserRepository userRepository;
+    private final ConsignmentRepository consignmentRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UnreadCountCache unreadCountCache;
+    private final NotificationPreferenceCache preferenceCache;
+
+    @Value("${notification.page.default-size:20}")
+    private int defaultPageSize = 20;
+
+    @Value("${notification.page.max-size:100}")
+    private int maxPageSize = 100;
 
     /**
      * Create a notification for a user.
@@ -37,11 +66,181 @@ public class NotificationService {
                 .referenceType(referenceType)
                 .read(false)
                 .build();
+        return save(notification);
+    }
+
+    /**
+     * Save several prepared notifications in one batch.
+     */
+    @Transactional
+    public List<Notification> createNotifications(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return notifications;
+        }
+
+        List<Notification> saved = notificationRepository.saveAll(notifications);
+        saved.forEach(this::announce);
+        log.info("Created {} notifications", saved.size());
+        return saved;
+    }
+
+    /**
+     * Queue a notification raised by a business transaction.
+     * 
+     * Only a compact outbox row is written here; the notification itself is
+     * created in a batch by {@link NotificationDispatcher} after commit.
+     */
+    public void queueNotification(User recipient, NotificationType type,
+            String title, String message, Long referenceId, String referenceType) {
+        queue(NotificationOutbox.builder()
+                .recipientId(recipient.getId())
+                .type(type)
+                .title(title)
+                .message(message)
+                .referenceId(referenceId)
+                .referenceType(referenceType)
+                .build());
+    }
+
+    /**
+     * Queue units sold for the consignor's digest of a consignment today.
+     * Entries with the same digest key end up in one notification.
+     */
+    private void queueSaleDigest(User consignor, Consignment consignment, int quantity) {
+        queue(NotificationOutbox.builder()
+                .recipientId(consignor.getId())
+                .type(NotificationType.SALE_RECORDED)
+                .title("Penjualan Hari Ini")
+                .message(saleDigestMessage(consignment, quantity))
+                .referenceId(consignment.getId())
+                .referenceType("CONSIGNMENT")
+                .dedupKey(Notification.dedupKey(NotificationType.SALE_RECORDED, consignment.getId(),
+                        LocalDate.now()))
+                .quantity(quantity)
+                .build());
+    }
+
+    private void queue(NotificationOutbox entry) {
+        entry = notificationOutboxRepository.save(entry);
+        eventPublisher.publishEvent(new NotificationQueuedEvent(entry.getId()));
+    }
+
+    private String saleDigestMessage(Consignment consignment, int quantity) {
+        return String.format("%d unit %s terjual di %s hari ini",
+                quantity, consignment.getProduct().getName(), consignment.getShop().getName());
+    }
+
+    /**
+     * Turn queued outbox entries into notifications and remove them.
+     * Entries already delivered elsewhere are skipped; digest entries are
+     * merged into their digest notification.
+     */
+    @Transactional
+    public int deliverQueued(Collection<Long> outboxIds) {
+        List<NotificationOutbox> entries = notificationOutboxRepository.lockByIdIn(outboxIds);
+        if (entries.isEmpty()) {
+            return 0;
+        }
+
+        List<Notification> notifications = new ArrayList<>();
+        Map<String, List<NotificationOutbox>> digestEntries = new LinkedHashMap<>();
+        for (NotificationOutbox entry : entries) {
+            if (entry.getDedupKey() != null) {
+                digestEntries.computeIfAbsent(entry.getDedupKey(), key -> new ArrayList<>()).add(entry);
+            } else {
+                notifications.add(Notification.builder()
+                        .recipient(userRepository.getReferenceById(entry.getRecipientId()))
+                        .type(entry.getType())
+                        .title(entry.getTitle())
+                        .message(entry.getMessage())
+                        .referenceId(entry.getReferenceId())
+                        .referenceType(entry.getReferenceType())
+                        .read(false)
+                        .build());
+            }
+        }
+        if (!digestEntries.isEmpty()) {
+            notifications.addAll(mergeSaleDigests(digestEntries));
+        }
+
+        createNotifications(notifications);
+        notificationOutboxRepository.deleteAllInBatch(entries);
+        return entries.size();
+    }
+
+    /**
+     * Add queued sales to their digests. Existing digests are updated in
+     * place and become unread again; digests not created yet are returned.
+     * 
+     * If two deliveries create the same digest at once, the unique key fails
+     * one of them and its entries are merged by the outbox sweep.
+     */
+    private List<Notification> mergeSaleDigests(Map<String, List<NotificationOutbox>> entriesByKey) {
+        Set<Long> recipientIds = new HashSet<>();
+        Set<Long> consignmentIds = new HashSet<>();
+        entriesByKey.values().forEach(group -> {
+            recipientIds.add(group.get(0).getRecipientId());
+            consignmentIds.add(group.get(0).getReferenceId());
+        });
+
+        Map<String, Notification> digests = notificationRepository
+                .lockDigests(recipientIds, entriesByKey.keySet()).stream()
+                .collect(Collectors.toMap(Notification::getDedupKey, Function.identity()));
+        Map<Long, Consignment> consignments = consignmentRepository
+                .findWithProductAndShopByIdIn(consignmentIds).stream()
+                .collect(Collectors.toMap(Consignment::getId, Function.identity()));
+
+        List<Notification> created = new ArrayList<>();
+        entriesByKey.forEach((key, group) -> {
+            NotificationOutbox first = group.get(0);
+            Consignment consignment = consignments.get(first.getReferenceId());
+            int quantity = group.stream().mapToInt(NotificationOutbox::getQuantity).sum();
+
+            Notification digest = digests.get(key);
+            if (digest == null) {
+                created.add(Notification.builder()
+                        .recipient(userRepository.getReferenceById(first.getRecipientId()))
+                        .type(first.getType())
+                        .title(first.getTitle())
+                        .message(consignment != null ? saleDigestMessage(consignment, quantity) : first.getMessage())
+                        .referenceId(first.getReferenceId())
+                        .referenceType(first.getReferenceType())
+                        .dedupKey(key)
+                        .digestQuantity(quantity)
+                        .read(false)
+                        .build());
+                return;
+            }
+
+            digest.setDigestQuantity(digest.getDigestQuantity() + quantity);
+            if (consignment != null) {
+                digest.setMessage(saleDigestMessage(consignment, digest.getDigestQuantity()));
+            }
+            if (digest.getRead()) {
+                digest.setRead(false);
+                digest.setReadAt(null);
+                unreadCountCache.increment(first.getRecipientId());
+            }
+            eventPublisher.publishEvent(new NotificationCreatedEvent(first.getRecipientId(), digest));
+        });
+        return created;
+    }
+
+    private Notification save(Notification notification) {
         notification = notificationRepository.save(notification);
-        log.info("Created notification for user {}: {}", recipient.getEmail(), title);
+        announce(notification);
+        log.info("Created notification for user {}: {}",
+                notification.getRecipient().getEmail(), notification.getTitle());
         return notification;
     }
 
+    private void announce(Notification notification) {
+        Long recipientId = notification.getRecipient().getId();
+        // Registered before the event so the counter is current when stream listeners read it
+        unreadCountCache.increment(recipientId);
+        eventPublisher.publishEvent(new NotificationCreatedEvent(recipientId, notification));
+    }
+
     /**
      * Notify when a new agreement is proposed.
      * Notifies the party who needs to respond (opposite of proposer).
@@ -66,7 +265,7 @@ public class NotificationService {
         }
 
         String productName = consignment.getProduct().getName();
-        createNotification(
+        queueNotification(
                 recipient,
                 NotificationType.AGREEMENT_PROPOSED,
                 "Permintaan Perjanjian Baru",
@@ -82,7 +281,7 @@ public class NotificationService {
         User proposer = agreement.getProposedBy();
         String productName = agreement.getConsignment().getProduct().getName();
 
-        createNotification(
+        queueNotification(
                 proposer,
                 NotificationType.AGREEMENT_ACCEPTED,
                 "Perjanjian Diterima",
@@ -99,7 +298,7 @@ public class NotificationService {
         String productName = agreement.getConsignment().getProduct().getName();
         String reason = agreement.getResponseMessage() != null ? agreement.getResponseMessage() : "";
 
-        createNotification(
+        queueNotification(
                 proposer,
                 NotificationType.AGREEMENT_REJECTED,
                 "Perjanjian Ditolak",
@@ -115,7 +314,7 @@ public class NotificationService {
         User originalProposer = previousAgreement.getProposedBy();
         String productName = agreement.getConsignment().getProduct().getName();
 
-        createNotification(
+        queueNotification(
                 originalProposer,
                 NotificationType.AGREEMENT_COUNTERED,
                 "Penawaran Balik Diterima",
@@ -126,6 +325,8 @@ public class NotificationService {
 
     /**
      * Notify consignor when a sale is recorded.
+     * With sale digests enabled the sale is added to today's digest for the
+     * consignment instead.
      */
     public void notifySaleRecorded(Sale sale) {
         Consignment consignment = sale.getConsignment();
@@ -136,8 +337,13 @@ public class NotificationService {
             return;
         }
 
+        if (preferenceCache.get(consignor.getId()).saleDigestEnabled()) {
+            queueSaleDigest(consignor, consignment, sale.getQuantitySold());
+            return;
+        }
+
         String productName = consignment.getProduct().getName();
-        createNotification(
+        queueNotification(
                 consignor,
                 NotificationType.SALE_RECORDED,
                 "Penjualan Tercatat",
@@ -147,74 +353,175 @@ public class NotificationService {
                 "SALE");
     }
 
+    /**
+     * Notify consignors about a batch of sales with one notification each
+     * instead of one per sale.
+     */
+    public void notifySalesRecorded(List<Sale> sales) {
+        Map<Long, List<Sale>> salesByConsignor = sales.stream()
+                .filter(sale -> sale.getConsignment().getProduct().getOwner() != null)
+                .collect(Collectors.groupingBy(
+                        sale -> sale.getConsignment().getProduct().getOwner().getId(),
+                        LinkedHashMap::new,
+                        Collectors.toList()));
+
+        salesByConsignor.values().forEach(consignorSales -> {
+            if (consignorSales.size() == 1) {
+                notifySaleRecorded(consignorSales.get(0));
+                return;
+            }
+
+            Consignment consignment = consignorSales.get(0).getConsignment();
+            User consignor = consignment.getProduct().getOwner();
+
+            if (preferenceCache.get(consignor.getId()).saleDigestEnabled()) {
+                consignorSales.stream()
+                        .collect(Collectors.groupingBy(sale -> sale.getConsignment().getId(),
+                                LinkedHashMap::new, Collectors.toList()))
+                        .values()
+                        .forEach(group -> queueSaleDigest(consignor, group.get(0).getConsignment(),
+                                group.stream().mapToInt(Sale::getQuantitySold).sum()));
+                return;
+            }
+            int itemsSold = consignorSales.stream().mapToInt(Sale::getQuantitySold).sum();
+
+            queueNotification(
+                    consignor,
+                    NotificationType.SALE_RECORDED,
+                    "Penjualan Tercatat",
+                    String.format("%d penjualan (%d unit) tercatat di %s",
+                            consignorSales.size(), itemsSold, consignment.getShop().getName()),
+                    consignment.getShop().getId(),
+                    "SHOP");
+        });
+    }
+
     // ===== Stock Notifications =====
 
     /**
-     * Notify consignor when stock is running low.
+     * Send STOCK_OUT or STOCK_LOW alerts for several consignments in one batch,
+     * keyed for deduplication on {@code day}. Consignments must have a product owner.
      */
-    public void notifyStockLow(Consignment consignment, int currentQuantity) {
-        User consignor = consignment.getProduct().getOwner();
+    @Transactional
+    public int notifyStockAlerts(List<Consignment> consignments, LocalDate day) {
+        List<Notification> notifications = consignments.stream()
+                .map(consignment -> consignment.getCurrentQuantity() == 0
+                        ? stockOutNotification(consignment, day)
+                        : stockLowNotification(consignment, consignment.getCurrentQuantity(), day))
+                .toList();
+        return createNotifications(notifications).size();
+    }
 
-        if (consignor == null) {
-            log.warn("Cannot notify stock low - product has no registered owner");
-            return;
-        }
+    /**
+     * Stock alert type for a consignment's current quantity.
+     */
+    public static NotificationType stockAlertType(Consignment consignment) {
+        return consignment.getCurrentQuantity() == 0 ? NotificationType.STOCK_OUT : NotificationType.STOCK_LOW;
+    }
 
+    private Notification stockLowNotification(Consignment consignment, int currentQuantity, LocalDate dedupDay) {
         String productName = consignment.getProduct().getName();
         String shopName = consignment.getShop().getName();
-        createNotification(
-                consignor,
-                NotificationType.STOCK_LOW,
-                "Stok Menipis",
-                String.format("Stok %s di %s tinggal %d unit",
-                        productName, shopName, currentQuantity),
-                consignment.getId(),
-                "CONSIGNMENT");
+        return Notification.builder()
+                .recipient(consignment.getProduct().getOwner())
+                .type(NotificationType.STOCK_LOW)
+                .title("Stok Menipis")
+                .message(String.format("Stok %s di %s tinggal %d unit",
+                        productName, shopName, currentQuantity))
+                .referenceId(consignment.getId())
+                .referenceType("CONSIGNMENT")
+                .dedupKey(Notification.dedupKey(NotificationType.STOCK_LOW, consignment.getId(), dedupDay))
+                .read(false)
+                .build();
     }
 
-    /**
-     * Notify consignor when stock is completely out.
-     */
-    public void notifyStockOut(Consignment consignment) {
-        User consignor = consignment.getProduct().getOwner();
-
-        if (consignor == null) {
-            log.warn("Cannot notify stock out - product has no registered owner");
-            return;
-        }
+    private Notification stockOutNotification(Consignment consignment, LocalDate dedupDay) {
+        String productName = consignment.getProduct().getName();
+        String shopName = consignment.getShop().getName();
+        return Notification.builder()
+                .recipient(consignment.getProduct().getOwner())
+                .type(NotificationType.STOCK_OUT)
+                .title("Stok Habis")
+                .message(String.format("Stok %s di %s sudah habis!", productName, shopName))
+                .referenceId(consignment.getId())
+                .referenceType("CONSIGNMENT")
+                .dedupKey(Notification.dedupKey(NotificationType.STOCK_OUT, consignment.getId(), dedupDay))
+                .read(false)
+                .build();
+    }
 
+    private Notification expiryReminderNotification(Consignment consignment, int daysRemaining,
+            LocalDate dedupDay) {
         String productName = consignment.getProduct().getName();
         String shopName = consignment.getShop().getName();
-        createNotification(
-                consignor,
-                NotificationType.STOCK_OUT,
-                "Stok Habis",
-                String.format("Stok %s di %s sudah habis!", productName, shopName),
-                consignment.getId(),
-                "CONSIGNMENT");
+        return Notification.builder()
+                .recipient(consignment.getProduct().getOwner())
+                .type(NotificationType.CONSIGNMENT_EXPIRING)
+                .title("Konsinyasi Akan Berakhir")
+                .message(String.format("Konsinyasi %s di %s akan berakhir dalam %d hari",
+                        productName, shopName, daysRemaining))
+                .referenceId(consignment.getId())
+                .referenceType("CONSIGNMENT")
+                .dedupKey(Notification.dedupKey(NotificationType.CONSIGNMENT_EXPIRING, consignment.getId(), dedupDay))
+                .read(false)
+                .build();
     }
 
     /**
-     * Notify consignor about upcoming expiry.
+     * Send expiry reminders for several consignments in one batch.
+     * The days remaining are counted from {@code today}.
      */
-    public void notifyExpiryReminder(Consignment consignment, int daysRemaining) {
-        User consignor = consignment.getProduct().getOwner();
+    @Transactional
+    public int notifyExpiryReminders(List<Consignment> consignments, LocalDate today) {
+        List<Notification> notifications = consignments.stream()
+                .map(consignment -> expiryReminderNotification(consignment,
+                        (int) ChronoUnit.DAYS.between(today, consignment.getExpiryDate()), today))
+                .toList();
+        return createNotifications(notifications).size();
+    }
 
-        if (consignor == null) {
-            log.warn("Cannot notify expiry - product has no registered owner");
-            return;
+    /**
+     * Send weekly summaries in their own transaction, so a job still reading
+     * a cursor on its own connection can write as it goes.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int notifyWeeklySummaries(List<WeeklySummary> summaries, LocalDate weekStart) {
+        List<Notification> notifications = summaries.stream()
+                .map(summary -> weeklySummaryNotification(summary, weekStart))
+                .toList();
+        return createNotifications(notifications).size();
+    }
+
+    private Notification weeklySummaryNotification(WeeklySummary summary, LocalDate weekStart) {
+        StringBuilder message = new StringBuilder(String.format(
+                "Minggu lalu: %d penjualan (%d unit), pendapatan Rp%,.0f.",
+                summary.getSalesCount(), summary.getItemsSold(), summary.getConsignorEarning()));
+        if (summary.getTopProductName() != null) {
+            message.append(String.format(" Terlaris: %s.", summary.getTopProductName()));
+        }
+        if (summary.getLowStockCount() > 0) {
+            message.append(String.format(" %d produk stok menipis.", summary.getLowStockCount()));
         }
 
-        String productName = consignment.getProduct().getName();
-        String shopName = consignment.getShop().getName();
-        createNotification(
-                consignor,
-                NotificationType.CONSIGNMENT_EXPIRING,
-                "Konsinyasi Akan Berakhir",
-                String.format("Konsinyasi %s di %s akan berakhir dalam %d hari",
-                        productName, shopName, daysRemaining),
-                consignment.getId(),
-                "CONSIGNMENT");
+        return Notification.builder()
+                .recipient(userRepository.getReferenceById(summary.getOwnerId()))
+                .type(NotificationType.STOCK_WEEKLY_SUMMARY)
+                .title("Ringkasan Mingguan")
+                .message(message.toString())
+                .referenceId(summary.getOwnerId())
+                .referenceType("USER")
+                .dedupKey(Notification.dedupKey(NotificationType.STOCK_WEEKLY_SUMMARY,
+                        summary.getOwnerId(), weekStart))
+                .read(false)
+                .build();
+    }
+
+    /**
+     * Dedup keys of scheduled alerts of the given types already sent on a
+     * day, loaded once per job run so candidates can be filtered in memory.
+     */
+    public Set<String> getAlertKeysSentOn(LocalDate day, Collection<NotificationType> types) {
+        return notificationRepository.findDedupKeysSince(day.atStartOfDay(), types);
     }
 
     /**
@@ -242,10 +549,32 @@ public class NotificationService {
     // ===== Retrieval Methods =====
 
     /**
-     * Get all notifications for a user.
+     * Get one page of a user's notifications, newest first.
+     * Pass the previous page's {@code nextCursor} to continue; null starts
+     * from the newest. The size is capped at {@code notification.page.max-size}.
      */
-    public List<Notification> getNotifications(Long userId) {
-        return notificationRepository.findByRecipientIdOrderByCreatedAtDesc(userId);
+    public NotificationPageResponse getNotificationPage(Long userId, String cursor, Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        // One extra row tells whether there is a next page
+        Pageable page = PageRequest.of(0, pageSize + 1);
+
+        List<Notification> notifications;
+        if (cursor == null || cursor.isBlank()) {
+            notifications = notificationRepository.findByRecipientIdOrderByCreatedAtDescIdDesc(userId, page);
+        } else {
+            NotificationCursor after = NotificationCursor.decode(cursor);
+            notifications = notificationRepository.findPageAfter(userId, after.createdAt(), after.id(), page);
+        }
+
+        boolean hasMore = notifications.size() > pageSize;
+        if (hasMore) {
+            notifications = notifications.subList(0, pageSize);
+        }
+
+        return NotificationPageResponse.builder()
+                .items(notifications.stream().map(NotificationResponse::fromEntity).toList())
+                .nextCursor(hasMore ? NotificationCursor.of(notifications.get(pageSize - 1)).encode() : null)
+                .build();
     }
 
     /**
@@ -256,10 +585,11 @@ public class NotificationService {
     }
 
     /**
-     * Get count of unread notifications for a user.
+     * Get an approximate count of unread notifications for a user.
+     * Served from {@link UnreadCountCache}; counted in the database only on a miss.
      */
     public long getUnreadCount(Long userId) {
-        return notificationRepository.countByRecipientIdAndReadFalse(userId);
+        return unreadCountCache.get(userId);
     }
 
     /**
@@ -278,6 +608,8 @@ public class NotificationService {
             notification.setRead(true);
             notification.setReadAt(LocalDateTime.now());
             notificationRepository.save(notification);
+            unreadCountCache.decrement(userId);
+            eventPublisher.publishEvent(new UnreadCountChangedEvent(userId));
         }
     }
 
@@ -286,6 +618,11 @@ public class NotificationService {
      */
     @Transactional
     public int markAllAsRead(Long userId) {
-        return notificationRepository.markAllAsReadByRecipientId(userId);
+        int updated = notificationRepository.markAllAsReadByRecipientId(userId);
+        if (updated > 0) {
+            unreadCountCache.reset(userId);
+            eventPublisher.publishEvent(new UnreadCountChangedEvent(userId));
+        }
+        return updated;
     }
 }
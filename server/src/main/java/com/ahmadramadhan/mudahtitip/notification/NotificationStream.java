@@ -0,0 +1,122 @@
+package com.ahmadramadhan.mudahtitip.notification;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One open SSE connection.
+ * 
+ * Events wait in a bounded queue and are written by a shared delivery
+ * executor, so a slow client never blocks the publisher. When the queue is
+ * full the pending events are replaced by a single "resync" event telling
+ * the client to refetch.
+ * 
+ * Events are queued already built (see {@link #event}): an
+ * {@code SseEventBuilder} appends to itself on every {@code build()} and is
+ * not thread-safe, so one builder must never be sent to several streams.
+ */
+@Slf4j
+class NotificationStream {
+
+    static final String RESYNC_EVENT = "resync";
+
+    private static final Set<DataWithMediaType> RESYNC = event(SseEmitter.event().name(RESYNC_EVENT).data(""));
+
+    @Getter
+    private final Long userId;
+    @Getter
+    private final SseEmitter emitter;
+    private final Queue<Set<DataWithMediaType>> buffer;
+    private final Executor deliveryExecutor;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    NotificationStream(Long userId, SseEmitter emitter, int bufferSize, Executor deliveryExecutor) {
+        this.userId = userId;
+        this.emitter = emitter;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.deliveryExecutor = deliveryExecutor;
+    }
+
+    /**
+     * Build an event once so the same payload can be queued on many streams.
+     */
+    static Set<DataWithMediaType> event(SseEmitter.SseEventBuilder builder) {
+        return Collections.unmodifiableSet(builder.build());
+    }
+
+    void send(Set<DataWithMediaType> event) {
+        if (closed.get()) {
+            return;
+        }
+
+        if (!buffer.offer(event)) {
+            // Overflowed: the client has missed events either way, so ask it to refetch
+            synchronized (buffer) {
+                buffer.clear();
+                buffer.offer(RESYNC);
+            }
+        }
+        scheduleDrain();
+    }
+
+    /**
+     * Send a keep-alive unless real events are already waiting.
+     */
+    void heartbeat(Set<DataWithMediaType> event) {
+        if (buffer.isEmpty()) {
+            send(event);
+        }
+    }
+
+    void close() {
+        if (closed.compareAndSet(false, true)) {
+            buffer.clear();
+            emitter.complete();
+        }
+    }
+
+    private void scheduleDrain() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            deliveryExecutor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            draining.set(false);
+            log.warn("Notification delivery queue full, dropping stream for user {}", userId);
+            close();
+        }
+    }
+
+    private void drain() {
+        try {
+            Set<DataWithMediaType> event;
+            while (!closed.get() && (event = buffer.poll()) != null) {
+                emitter.send(event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away or the emitter already completed
+            log.debug("Closing notification stream for user {}: {}", userId, e.getMessage());
+            close();
+        } finally {
+            draining.set(false);
+        }
+
+        // Events offered while we were finishing up
+        if (!closed.get() && !buffer.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.ahmadramadhan.mudahtitip.notification;
+
+import com.ahmadramadhan.mudahtitip.common.MessageService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes notifications and unread counts to connected clients over
+ * Server-Sent Events.
+ * 
+ * Idle connections are parked in servlet async mode and hold no thread;
+ * writes go through a small shared delivery pool. Events are published only
+ * after the notification's transaction commits.
+ */
+@Service
+@Slf4j
+public class NotificationStreamService {
+
+    static final String NOTIFICATION_EVENT = "notification";
+    static final String UNREAD_COUNT_EVENT = "unread-count";
+    static final String HEARTBEAT_EVENT = "heartbeat";
+
+    private final NotificationService notificationService;
+    private final MessageService messageService;
+    private final Map<Long, List<NotificationStream>> streamsByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final ThreadPoolExecutor deliveryExecutor;
+    private final Duration timeout;
+    private final int bufferSize;
+    private final int maxConnections;
+    private final int maxConnectionsPerUser;
+
+    public NotificationStreamService(
+            NotificationService notificationService,
+            MessageService messageService,
+            @Value("${notification.stream.timeout:30m}") Duration timeout,
+            @Value("${notification.stream.buffer-size:32}") int bufferSize,
+            @Value("${notification.stream.max-connections:10000}") int maxConnections,
+            @Value("${notification.stream.max-connections-per-user:5}") int maxConnectionsPerUser,
+            @Value("${notification.stream.delivery-threads:4}") int deliveryThreads) {
+        this.notificationService = notificationService;
+        this.messageService = messageService;
+        this.timeout = timeout;
+        this.bufferSize = bufferSize;
+        this.maxConnections = maxConnections;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.deliveryExecutor = new ThreadPoolExecutor(
+                deliveryThreads, deliveryThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxConnections),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "notification-sse-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Open a stream for a user. The current unread count is sent first.
+     */
+    public SseEmitter subscribe(Long userId) {
+        if (connectionCount.incrementAndGet() > maxConnections) {
+            connectionCount.decrementAndGet();
+            throw new IllegalStateException(messageService.getMessage("notification.stream.capacity"));
+        }
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        NotificationStream stream = new NotificationStream(userId, emitter, bufferSize, deliveryExecutor);
+
+        List<NotificationStream> userStreams = streamsByUser.compute(userId, (id, streams) -> {
+            List<NotificationStream> result = streams != null ? streams : new CopyOnWriteArrayList<>();
+            result.add(stream);
+            return result;
+        });
+
+        // Drop the oldest connections of a user who keeps reconnecting
+        while (userStreams.size() > maxConnectionsPerUser) {
+            NotificationStream oldest = userStreams.get(0);
+            oldest.close();
+            remove(oldest);
+        }
+
+        emitter.onCompletion(() -> remove(stream));
+        emitter.onTimeout(() -> {
+            stream.close();
+            remove(stream);
+        });
+        emitter.onError(e -> {
+            stream.close();
+            remove(stream);
+        });
+
+        stream.send(unreadCountEvent(notificationService.getUnreadCount(userId)));
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        List<NotificationStream> userStreams = streamsByUser.get(event.recipientId());
+        if (userStreams == null || userStreams.isEmpty()) {
+            return;
+        }
+
+        Set<DataWithMediaType> notificationEvent = NotificationStream.event(SseEmitter.event()
+                .name(NOTIFICATION_EVENT)
+                .id(String.valueOf(event.notification().getId()))
+                .data(NotificationResponse.fromEntity(event.notification())));
+        Set<DataWithMediaType> countEvent = unreadCountEvent(
+                notificationService.getUnreadCount(event.recipientId()));
+
+        userStreams.forEach(stream -> {
+            stream.send(notificationEvent);
+            stream.send(countEvent);
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUnreadCountChanged(UnreadCountChangedEvent event) {
+        List<NotificationStream> userStreams = streamsByUser.get(event.recipientId());
+        if (userStreams == null || userStreams.isEmpty()) {
+            return;
+        }
+
+        Set<DataWithMediaType> countEvent = unreadCountEvent(
+                notificationService.getUnreadCount(event.recipientId()));
+        userStreams.forEach(stream -> stream.send(countEvent));
+    }
+
+    /**
+     * Keep idle connections open through proxies and detect dead clients.
+     */
+    @Scheduled(fixedRateString = "${notification.stream.heartbeat:25s}")
+    public void sendHeartbeats() {
+        if (connectionCount.get() == 0) {
+            return;
+        }
+
+        Set<DataWithMediaType> heartbeat = NotificationStream.event(SseEmitter.event().name(HEARTBEAT_EVENT).data(""));
+        streamsByUser.values().forEach(userStreams -> userStreams.forEach(stream -> stream.heartbeat(heartbeat)));
+    }
+
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        streamsByUser.values().forEach(userStreams -> userStreams.forEach(NotificationStream::close));
+        deliveryExecutor.shutdown();
+    }
+
+    private void remove(NotificationStream stream) {
+        AtomicBoolean removed = new AtomicBoolean();
+        streamsByUser.computeIfPresent(stream.getUserId(), (id, streams) -> {
+            removed.set(streams.remove(stream));
+            return streams.isEmpty() ? null : streams;
+        });
+        if (removed.get()) {
+            connectionCount.decrementAndGet();
+        }
+    }
+
+    private Set<DataWithMediaType> unreadCountEvent(long count) {
+        return NotificationStream.event(SseEmitter.event().name(UNREAD_COUNT_EVENT).data(Map.of("count", count)));
+    }
+}
@@ -0,0 +1,93 @@
+package com.ahmadramadhan.mudahtitip.notification;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user unread notification counters, used for badge counts.
+ * 
+ * A counter is loaded from the database on first read and then kept in step
+ * by NotificationService. Updates are applied after commit so rolled back
+ * notifications are never counted. Users without a cached counter are left
+ * alone; their next read reloads it.
+ * 
+ * Counts are approximate. Each instance only adjusts its own counters, so
+ * with several instances a notification delivered or read on one instance
+ * shows up on the others only when their entry expires. The TTL therefore
+ * bounds how stale a count can be, across instances and from concurrent
+ * loads, and should stay short when more than one instance runs.
+ */
+@Component
+public class UnreadCountCache {
+
+    private final NotificationRepository notificationRepository;
+    private final Cache<Long, AtomicLong> cache;
+
+    public UnreadCountCache(
+            NotificationRepository notificationRepository,
+            MeterRegistry meterRegistry,
+            @Value("${notification.unread-cache.max-size:50000}") long maxSize,
+            @Value("${notification.unread-cache.ttl:1m}") Duration ttl) {
+        this.notificationRepository = notificationRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "notification.unread-count");
+    }
+
+    public long get(Long userId) {
+        return cache.get(userId, id -> new AtomicLong(notificationRepository.countByRecipientIdAndReadFalse(id)))
+                .get();
+    }
+
+    public void increment(Long userId) {
+        afterCommit(() -> {
+            AtomicLong counter = cache.getIfPresent(userId);
+            if (counter != null) {
+                counter.incrementAndGet();
+            }
+        });
+    }
+
+    public void decrement(Long userId) {
+        afterCommit(() -> {
+            AtomicLong counter = cache.getIfPresent(userId);
+            if (counter != null) {
+                counter.updateAndGet(count -> Math.max(0, count - 1));
+            }
+        });
+    }
+
+    public void reset(Long userId) {
+        afterCommit(() -> cache.put(userId, new AtomicLong()));
+    }
+
+    public void evict(Long userId) {
+        afterCommit(() -> cache.invalidate(userId));
+    }
+
+    private void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+}
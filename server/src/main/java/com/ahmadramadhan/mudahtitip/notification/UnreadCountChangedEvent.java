@@ -0,0 +1,8 @@
+package com.ahmadramadhan.mudahtitip.notification;
+
+/**
+ * Published when notifications are marked as read, so open streams can
+ * refresh the recipient's badge.
+ */
+public record UnreadCountChangedEvent(Long recipientId) {
+}
@@ -0,0 +1,20 @@
+package com.ahmadramadhan.mudahtitip.notification;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * One consignor's figures for the weekly summary notification.
+ */
+@Data
+@Builder
+public class WeeklySummary {
+    private Long ownerId;
+    private long salesCount;
+    private long itemsSold;
+    private BigDecimal consignorEarning;
+    private String topProductName;
+    private long lowStockCount;
+}
@@ -2,9 +2,14 @@ package com.ahmadramadhan.mudahtitip.product;
 
 import com.ahmadramadhan.mudahtitip.auth.User;
 import com.ahmadramadhan.mudahtitip.consignor.GuestConsignor;
+import com.ahmadramadhan.mudahtitip.product.dto.OwnerProductCount;
+import com.ahmadramadhan.mudahtitip.product.dto.ProductCounts;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -28,4 +33,20 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findByGuestOwnerId(Long guestOwnerId);
 
     List<Product> findByIsActiveTrue();
+
+    /**
+     * Product counts for the admin dashboard in one pass over the table.
+     */
+    @Query("SELECT COUNT(p) AS total, " +
+            "COALESCE(SUM(CASE WHEN p.isActive = true THEN 1 ELSE 0 END), 0) AS active " +
+            "FROM Product p")
+    ProductCounts countForPlatform();
+
+    /**
+     * Product counts for several consignors in one grouped query.
+     * Consignors without products are left out.
+     */
+    @Query("SELECT p.owner.id AS ownerId, COUNT(p) AS productCount " +
+            "FROM Product p WHERE p.owner.id IN :ownerIds GROUP BY p.owner.id")
+    List<OwnerProductCount> countByOwnerIds(@Param("ownerIds") Collection<Long> ownerIds);
 }
@@ -1,5 +1,6 @@
 package com.ahmadramadhan.mudahtitip.product;
 
+import com.ahmadramadhan.mudahtitip.admin.PlatformMetricsSnapshot;
 import com.ahmadramadhan.mudahtitip.auth.User;
 import com.ahmadramadhan.mudahtitip.auth.UserRole;
 import com.ahmadramadhan.mudahtitip.common.MessageService;
@@ -21,6 +22,7 @@ public class ProductService {
     private final ProductRepository productRepository;
     private final GuestConsignorRepository guestConsignorRepository;
     private final MessageService messageService;
+    private final PlatformMetricsSnapshot platformMetricsSnapshot;
 
     /**
      * Create a new product for a registered consignor.
@@ -30,7 +32,9 @@ public class ProductService {
         product.setOwner(owner);
         product.setGuestOwner(null);
         product.setIsActive(true);
-        return productRepository.save(product);
+        product = productRepository.save(product);
+        platformMetricsSnapshot.recordWrites(1);
+        return product;
     }
 
     /**
@@ -50,7 +54,9 @@ public class ProductService {
         product.setOwner(null);
         product.setGuestOwner(guestConsignor);
         product.setIsActive(true);
-        return productRepository.save(product);
+        product = productRepository.save(product);
+        platformMetricsSnapshot.recordWrites(1);
+        return product;
     }
 
     /**
@@ -123,6 +129,7 @@ public class ProductService {
 
         product.setIsActive(false);
         productRepository.save(product);
+        platformMetricsSnapshot.recordWrites(1);
     }
 
     /**
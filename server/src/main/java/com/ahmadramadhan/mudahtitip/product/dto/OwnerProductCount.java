@@ -0,0 +1,11 @@
+package com.ahmadramadhan.mudahtitip.product.dto;
+
+/**
+ * Projection for the number of products a consignor owns.
+ */
+public interface OwnerProductCount {
+
+    Long getOwnerId();
+
+    Long getProductCount();
+}
@@ -0,0 +1,11 @@
+package com.ahmadramadhan.mudahtitip.product.dto;
+
+/**
+ * Projection for platform-wide product counts.
+ */
+public interface ProductCounts {
+
+    Long getTotal();
+
+    Long getActive();
+}
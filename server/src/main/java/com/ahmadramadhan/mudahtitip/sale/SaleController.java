@@ -2,8 +2,12 @@ package com.ahmadramadhan.mudahtitip.sale;
 
 import com.ahmadramadhan.mudahtitip.auth.User;
 import com.ahmadramadhan.mudahtitip.auth.UserRole;
+import com.ahmadramadhan.mudahtitip.sale.dto.BatchSaleRequest;
+import com.ahmadramadhan.mudahtitip.sale.dto.BatchSaleResult;
 import com.ahmadramadhan.mudahtitip.sale.dto.SaleRequest;
+import com.ahmadramadhan.mudahtitip.sale.dto.SalesTotalsAggregate;
 import com.ahmadramadhan.mudahtitip.shop.ShopRepository;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
@@ -13,7 +17,6 @@ import org.springframework.web.bind.annotation.*;
 
 import com.ahmadramadhan.mudahtitip.common.config.ApiV1Controller;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -42,6 +45,23 @@ public class SaleController {
         return ResponseEntity.ok(sale);
     }
 
+    /**
+     * Record many sales in one request (e.g. POS end-of-day upload).
+     * Each line is reported as recorded or rejected; rejected lines do not
+     * prevent the others from being recorded.
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('SHOP_OWNER')")
+    public ResponseEntity<BatchSaleResult> recordSales(
+            @AuthenticationPrincipal User currentUser,
+            @Valid @RequestBody BatchSaleRequest request) {
+        Long shopId = shopRepository.findByOwner(currentUser)
+                .map(shop -> shop.getId())
+                .orElseThrow(() -> new IllegalStateException("Toko tidak ditemukan"));
+
+        return ResponseEntity.ok(saleService.recordSales(shopId, request.getSales()));
+    }
+
     /**
      * Get sales for current user.
      * Shop owners see sales at their shop.
@@ -69,6 +89,8 @@ public class SaleController {
 
     /**
      * Get earnings summary for current user.
+     * Totals come from the daily sales rollup, so the cost depends on the
+     * number of days and products rather than the number of sales.
      */
     @GetMapping("/summary")
     public ResponseEntity<Map<String, Object>> getEarningsSummary(
@@ -86,19 +108,19 @@ public class SaleController {
                     .map(shop -> shop.getId())
                     .orElseThrow(() -> new IllegalStateException("Toko tidak ditemukan"));
 
-            BigDecimal totalCommission = saleService.getTotalShopCommission(shopId, start, end);
-            List<Sale> sales = saleService.getSalesByShopAndDateRange(shopId, start, end);
+            SalesTotalsAggregate totals = saleService.getSalesTotalsByShop(
+                    shopId, start.toLocalDate(), end.toLocalDate());
 
-            summary.put("totalEarnings", totalCommission);
-            summary.put("totalSales", sales.size());
-            summary.put("totalItemsSold", sales.stream().mapToInt(Sale::getQuantitySold).sum());
+            summary.put("totalEarnings", totals.getShopCommission());
+            summary.put("totalSales", totals.getSalesCount());
+            summary.put("totalItemsSold", totals.getItemsSold());
         } else {
-            BigDecimal totalEarnings = saleService.getTotalConsignorEarnings(currentUser.getId(), start, end);
-            List<Sale> sales = saleService.getSalesByOwnerAndDateRange(currentUser.getId(), start, end);
+            SalesTotalsAggregate totals = saleService.getSalesTotalsByOwner(
+                    currentUser.getId(), start.toLocalDate(), end.toLocalDate());
 
-            summary.put("totalEarnings", totalEarnings);
-            summary.put("totalSales", sales.size());
-            summary.put("totalItemsSold", sales.stream().mapToInt(Sale::getQuantitySold).sum());
+            summary.put("totalEarnings", totals.getConsignorEarning());
+            summary.put("totalSales", totals.getSalesCount());
+            summary.put("totalItemsSold", totals.getItemsSold());
         }
 
         summary.put("startDate", start.toLocalDate());
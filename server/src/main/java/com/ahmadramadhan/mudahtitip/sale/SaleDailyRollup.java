@@ -0,0 +1,73 @@
+package com.ahmadramadhan.mudahtitip.sale;
+
+import com.ahmadramadhan.mudahtitip.auth.User;
+import com.ahmadramadhan.mudahtitip.common.entity.BaseEntity;
+import com.ahmadramadhan.mudahtitip.product.Product;
+import com.ahmadramadhan.mudahtitip.shop.Shop;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated sales per shop, product and day.
+ * 
+ * Maintained incrementally by {@link SaleRollupService} whenever a sale is
+ * recorded, so dashboards read one row per bucket instead of every sale.
+ * The owner is denormalized from the product to allow filtering by
+ * consignor without a join (null for guest-owned products).
+ */
+@Entity
+@Table(name = "sale_daily_rollup", uniqueConstraints = @UniqueConstraint(name = "uk_sale_daily_rollup_bucket", columnNames = {
+        "shop_id", "product_id", "sale_date" }), indexes = {
+        @Index(name = "idx_sale_daily_rollup_owner_date", columnList = "owner_id, sale_date"),
+        @Index(name = "idx_sale_daily_rollup_sale_date", columnList = "sale_date") })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SaleDailyRollup extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "shop_id", nullable = false)
+    private Shop shop;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "owner_id")
+    private User owner;
+
+    @Column(name = "sale_date", nullable = false)
+    private LocalDate saleDate;
+
+    @Column(name = "sales_count", nullable = false)
+    private Long salesCount;
+
+    @Column(name = "items_sold", nullable = false)
+    private Long itemsSold;
+
+    @Column(name = "total_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "shop_commission", nullable = false, precision = 14, scale = 2)
+    private BigDecimal shopCommission;
+
+    @Column(name = "consignor_earning", nullable = false, precision = 14, scale = 2)
+    private BigDecimal consignorEarning;
+}
@@ -0,0 +1,231 @@
+package com.ahmadramadhan.mudahtitip.sale;
+
+import com.ahmadramadhan.mudahtitip.sale.dto.DailySalesAggregate;
+import com.ahmadramadhan.mudahtitip.sale.dto.MonthlySalesAggregate;
+import com.ahmadramadhan.mudahtitip.sale.dto.OwnerProductSalesAggregate;
+import com.ahmadramadhan.mudahtitip.sale.dto.ProductSalesAggregate;
+import com.ahmadramadhan.mudahtitip.sale.dto.SalesTotalsAggregate;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Repository for the pre-aggregated daily sales rollup.
+ */
+@Repository
+public interface SaleDailyRollupRepository extends JpaRepository<SaleDailyRollup, Long> {
+
+    /**
+     * Atomically add sales to a bucket, inserting it with {@code id} when it
+     * does not exist yet. The unique bucket key turns a concurrent insert of
+     * the same bucket into an increment, so no sale fails or waits on it.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO sale_daily_rollup (id, shop_id, product_id, owner_id, sale_date, " +
+            "sales_count, items_sold, total_amount, shop_commission, consignor_earning, created_at, updated_at) " +
+            "VALUES (:id, :shopId, :productId, :ownerId, :saleDate, " +
+            ":salesCount, :quantity, :totalAmount, :shopCommission, :consignorEarning, :now, :now) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "sales_count = sales_count + VALUES(sales_count), " +
+            "items_sold = items_sold + VALUES(items_sold), " +
+            "total_amount = total_amount + VALUES(total_amount), " +
+            "shop_commission = shop_commission + VALUES(shop_commission), " +
+            "consignor_earning = consignor_earning + VALUES(consignor_earning), " +
+            "updated_at = VALUES(updated_at)", nativeQuery = true)
+    int upsertBucket(
+            @Param("id") Long id,
+            @Param("shopId") Long shopId,
+            @Param("productId") Long productId,
+            @Param("ownerId") Long ownerId,
+            @Param("saleDate") LocalDate saleDate,
+            @Param("salesCount") long salesCount,
+            @Param("quantity") long quantity,
+            @Param("totalAmount") BigDecimal totalAmount,
+            @Param("shopCommission") BigDecimal shopCommission,
+            @Param("consignorEarning") BigDecimal consignorEarning,
+            @Param("now") LocalDateTime now);
+
+    /**
+     * Delete all buckets within a date range (used before a rebuild).
+     */
+    @Modifying
+    @Query("DELETE FROM SaleDailyRollup r WHERE r.saleDate BETWEEN :startDate AND :endDate")
+    int deleteBySaleDateBetween(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Aggregate all sales per calendar month within date range.
+     */
+    @Query("SELECT YEAR(r.saleDate) AS saleYear, MONTH(r.saleDate) AS saleMonth, " +
+            "SUM(r.salesCount) AS salesCount, " +
+            "SUM(r.itemsSold) AS itemsSold, " +
+            "SUM(r.totalAmount) AS totalAmount, " +
+            "SUM(r.shopCommission) AS shopCommission, " +
+            "SUM(r.consignorEarning) AS consignorEarning " +
+            "FROM SaleDailyRollup r " +
+            "WHERE r.saleDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY YEAR(r.saleDate), MONTH(r.saleDate)")
+    List<MonthlySalesAggregate> aggregateMonthly(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Aggregate a shop's sales per day within date range.
+     */
+    @Query("SELECT r.saleDate AS saleDate, " +
+            "SUM(r.salesCount) AS salesCount, " +
+            "SUM(r.itemsSold) AS itemsSold, " +
+            "SUM(r.totalAmount) AS totalAmount, " +
+            "SUM(r.shopCommission) AS shopCommission, " +
+            "SUM(r.consignorEarning) AS consignorEarning " +
+            "FROM SaleDailyRollup r " +
+            "WHERE r.shop.id = :shopId " +
+            "AND r.saleDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY r.saleDate " +
+            "ORDER BY r.saleDate")
+    List<DailySalesAggregate> aggregateDailyByShop(
+            @Param("shopId") Long shopId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Aggregate a consignor's sales per day within date range.
+     */
+    @Query("SELECT r.saleDate AS saleDate, " +
+            "SUM(r.salesCount) AS salesCount, " +
+            "SUM(r.itemsSold) AS itemsSold, " +
+            "SUM(r.totalAmount) AS totalAmount, " +
+            "SUM(r.shopCommission) AS shopCommission, " +
+            "SUM(r.consignorEarning) AS consignorEarning " +
+            "FROM SaleDailyRollup r " +
+            "WHERE r.owner.id = :ownerId " +
+            "AND r.saleDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY r.saleDate " +
+            "ORDER BY r.saleDate")
+    List<DailySalesAggregate> aggregateDailyByOwner(
+            @Param("ownerId") Long ownerId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Aggregate a shop's sales per product within date range,
+     * ordered by shop commission (highest first).
+     */
+    @Query("SELECT p.id AS productId, p.name AS productName, p.category AS category, " +
+            "SUM(r.itemsSold) AS itemsSold, " +
+            "SUM(r.totalAmount) AS totalAmount, " +
+            "SUM(r.shopCommission) AS shopCommission, " +
+            "SUM(r.consignorEarning) AS consignorEarning " +
+            "FROM SaleDailyRollup r JOIN r.product p " +
+            "WHERE r.shop.id = :shopId " +
+            "AND r.saleDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY p.id, p.name, p.category " +
+            "HAVING SUM(r.salesCount) > 0 " +
+            "ORDER BY SUM(r.shopCommission) DESC")
+    List<ProductSalesAggregate> aggregateByProductForShop(
+            @Param("shopId") Long shopId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            Pageable pageable);
+
+    /**
+     * Aggregate a consignor's sales per product within date range,
+     * ordered by consignor earning (highest first).
+     */
+    @Query("SELECT p.id AS productId, p.name AS productName, p.category AS category, " +
+            "SUM(r.itemsSold) AS itemsSold, " +
+            "SUM(r.totalAmount) AS totalAmount, " +
+            "SUM(r.shopCommission) AS shopCommission, " +
+            "SUM(r.consignorEarning) AS consignorEarning " +
+            "FROM SaleDailyRollup r JOIN r.product p " +
+            "WHERE r.owner.id = :ownerId " +
+            "AND r.saleDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY p.id, p.name, p.category " +
+            "HAVING SUM(r.salesCount) > 0 " +
+            "ORDER BY SUM(r.consignorEarning) DESC")
+    List<ProductSalesAggregate> aggregateByProductForOwner(
+            @Param("ownerId") Long ownerId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            Pageable pageable);
+
+    /**
+     * Sum a shop's sales within date range.
+     */
+    @Query("SELECT COALESCE(SUM(r.salesCount), 0) AS salesCount, " +
+            "COALESCE(SUM(r.itemsSold), 0) AS itemsSold, " +
+            "COALESCE(SUM(r.totalAmount), 0) AS totalAmount, " +
+            "COALESCE(SUM(r.shopCommission), 0) AS shopCommission, " +
+            "COALESCE(SUM(r.consignorEarning), 0) AS consignorEarning " +
+            "FROM SaleDailyRollup r " +
+            "WHERE r.shop.id = :shopId " +
+            "AND r.saleDate BETWEEN :startDate AND :endDate")
+    SalesTotalsAggregate sumByShop(
+            @Param("shopId") Long shopId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Sum a consignor's sales within date range.
+     */
+    @Query("SELECT COALESCE(SUM(r.salesCount), 0) AS salesCount, " +
+            "COALESCE(SUM(r.itemsSold), 0) AS itemsSold, " +
+            "COALESCE(SUM(r.totalAmount), 0) AS totalAmount, " +
+            "COALESCE(SUM(r.shopCommission), 0) AS shopCommission, " +
+            "COALESCE(SUM(r.consignorEarning), 0) AS consignorEarning " +
+            "FROM SaleDailyRollup r " +
+            "WHERE r.owner.id = :ownerId " +
+            "AND r.saleDate BETWEEN :startDate AND :endDate")
+    SalesTotalsAggregate sumByOwner(
+            @Param("ownerId") Long ownerId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Sum all sales within date range.
+     */
+    @Query("SELECT COALESCE(SUM(r.salesCount), 0) AS salesCount, " +
+            "COALESCE(SUM(r.itemsSold), 0) AS itemsSold, " +
+            "COALESCE(SUM(r.totalAmount), 0) AS totalAmount, " +
+            "COALESCE(SUM(r.shopCommission), 0) AS shopCommission, " +
+            "COALESCE(SUM(r.consignorEarning), 0) AS consignorEarning " +
+            "FROM SaleDailyRollup r " +
+            "WHERE r.saleDate BETWEEN :startDate AND :endDate")
+    SalesTotalsAggregate sumBetween(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Stream per-product sales for every consignor who opted into the weekly
+     * summary, ordered by consignor and then by earnings so the first row of
+     * each consignor is their top product. Must be consumed inside a
+     * transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT o.id AS ownerId, p.name AS productName, " +
+            "SUM(r.salesCount) AS salesCount, SUM(r.itemsSold) AS itemsSold, " +
+            "SUM(r.consignorEarning) AS consignorEarning " +
+            "FROM SaleDailyRollup r JOIN r.owner o JOIN r.product p " +
+            "JOIN NotificationPreference np ON np.user = o " +
+            "WHERE np.weeklySummaryEnabled = true " +
+            "AND r.saleDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY o.id, p.id, p.name " +
+            "HAVING SUM(r.salesCount) > 0 " +
+            "ORDER BY o.id, SUM(r.consignorEarning) DESC")
+    Stream<OwnerProductSalesAggregate> streamWeeklySummarySales(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+}
@@ -0,0 +1,54 @@
+package com.ahmadramadhan.mudahtitip.sale;
+
+import com.ahmadramadhan.mudahtitip.common.entity.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Platform-wide sales per calendar month.
+ * 
+ * Rebuilt from {@link SaleDailyRollup} by {@link SaleRollupService}, so the
+ * admin dashboard reads one row per month instead of every bucket. Closed
+ * months only change when their days are reconciled; the current month is
+ * refreshed periodically by {@link SaleRollupScheduler}.
+ */
+@Entity
+@Table(name = "sale_monthly_rollup", uniqueConstraints = @UniqueConstraint(name = "uk_sale_monthly_rollup_month", columnNames = "sale_month"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SaleMonthlyRollup extends BaseEntity {
+
+    /**
+     * First day of the month.
+     */
+    @Column(name = "sale_month", nullable = false)
+    private LocalDate saleMonth;
+
+    @Column(name = "sales_count", nullable = false)
+    private Long salesCount;
+
+    @Column(name = "items_sold", nullable = false)
+    private Long itemsSold;
+
+    @Column(name = "total_amount", nullable = false, precision = 16, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "shop_commission", nullable = false, precision = 16, scale = 2)
+    private BigDecimal shopCommission;
+
+    @Column(name = "consignor_earning", nullable = false, precision = 16, scale = 2)
+    private BigDecimal consignorEarning;
+}
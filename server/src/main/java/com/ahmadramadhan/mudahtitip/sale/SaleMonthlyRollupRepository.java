@@ -0,0 +1,43 @@
+package com.ahmadramadhan.mudahtitip.sale;
+
+import com.ahmadramadhan.mudahtitip.sale.dto.SalesTotalsAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository for the platform-wide monthly sales rollup.
+ */
+@Repository
+public interface SaleMonthlyRollupRepository extends JpaRepository<SaleMonthlyRollup, Long> {
+
+    /**
+     * Delete all months within a range (used before a rebuild).
+     */
+    @Modifying
+    @Query("DELETE FROM SaleMonthlyRollup m WHERE m.saleMonth BETWEEN :startMonth AND :endMonth")
+    int deleteBySaleMonthBetween(
+            @Param("startMonth") LocalDate startMonth,
+            @Param("endMonth") LocalDate endMonth);
+
+    /**
+     * Find the given months, e.g. the current and previous one.
+     */
+    List<SaleMonthlyRollup> findBySaleMonthIn(List<LocalDate> saleMonths);
+
+    /**
+     * Sum all months. Reads one row per month ever recorded.
+     */
+    @Query("SELECT COALESCE(SUM(m.salesCount), 0) AS salesCount, " +
+            "COALESCE(SUM(m.itemsSold), 0) AS itemsSold, " +
+            "COALESCE(SUM(m.totalAmount), 0) AS totalAmount, " +
+            "COALESCE(SUM(m.shopCommission), 0) AS shopCommission, " +
+            "COALESCE(SUM(m.consignorEarning), 0) AS consignorEarning " +
+            "FROM SaleMonthlyRollup m")
+    SalesTotalsAggregate sumAll();
+}
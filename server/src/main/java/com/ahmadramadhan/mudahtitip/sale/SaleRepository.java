@@ -1,5 +1,6 @@
 package com.ahmadramadhan.mudahtitip.sale;
 
+import com.ahmadramadhan.mudahtitip.sale.dto.SaleBucketAggregate;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -55,4 +56,28 @@ public interface SaleRepository extends JpaRepository<Sale, Long> {
             @Param("ownerId") Long ownerId,
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Aggregate sales per shop, product and day within date range.
+     * Used to rebuild the daily rollup table.
+     */
+    @Query("SELECT c.shop.id AS shopId, p.id AS productId, o.id AS ownerId, " +
+            "CAST(s.soldAt AS LocalDate) AS saleDate, " +
+            "COUNT(s) AS salesCount, " +
+            "SUM(s.quantitySold) AS itemsSold, " +
+            "SUM(s.totalAmount) AS totalAmount, " +
+            "SUM(s.shopCommission) AS shopCommission, " +
+            "SUM(s.consignorEarning) AS consignorEarning " +
+            "FROM Sale s JOIN s.consignment c JOIN c.product p LEFT JOIN p.owner o " +
+            "WHERE s.soldAt BETWEEN :startDate AND :endDate " +
+            "GROUP BY c.shop.id, p.id, o.id, CAST(s.soldAt AS LocalDate)")
+    List<SaleBucketAggregate> aggregateBuckets(
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Timestamp of the earliest recorded sale, or null if there are none.
+     */
+    @Query("SELECT MIN(s.soldAt) FROM Sale s")
+    LocalDateTime findEarliestSoldAt();
 }
@@ -0,0 +1,134 @@
+package com.ahmadramadhan.mudahtitip.sale;
+
+import com.ahmadramadhan.mudahtitip.common.scheduling.JobLockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Jobs keeping the sales rollups in sync with the sales table.
+ * - Backfills all closed days on startup when a rollup table is empty
+ * - Reconciles the previous days (and their months) every night
+ * - Refreshes the current month's platform totals periodically
+ * Rebuilds delete and reinsert buckets, so each runs on one instance at a
+ * time (see {@link JobLockService}).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SaleRollupScheduler {
+
+    static final String DAILY_JOB = "sales.daily-rollup";
+    static final String MONTHLY_JOB = "sales.monthly-rollup";
+
+    /**
+     * Days rebuilt per transaction during a backfill.
+     */
+    private static final int BACKFILL_CHUNK_DAYS = 31;
+
+    /**
+     * Closed days re-checked by the nightly reconciliation.
+     */
+    private static final int RECONCILE_DAYS = 2;
+
+    private final SaleRollupService rollupService;
+    private final SaleRepository saleRepository;
+    private final JobLockService jobLockService;
+
+    /**
+     * Populate the rollups from existing sales the first time they are
+     * deployed, on a background thread so startup is not held up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        Thread thread = new Thread(this::runBackfill, "sale-rollup-backfill");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Rebuild the previous days at 02:30 to repair any drift, then the
+     * months they fall in.
+     */
+    @Scheduled(cron = "0 30 2 * * *")
+    public void reconcileRecentDays() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        LocalDate startDate = yesterday.minusDays(RECONCILE_DAYS - 1);
+        jobLockService.runExclusive(DAILY_JOB, () -> {
+            int buckets = rollupService.rebuild(startDate, yesterday);
+            log.info("Sales rollup reconciliation complete. {} bucket(s) written", buckets);
+        });
+
+        jobLockService.runExclusive(MONTHLY_JOB,
+                () -> rollupService.rebuildMonths(YearMonth.from(startDate), YearMonth.now()));
+    }
+
+    /**
+     * Refresh the current month's platform totals from the daily rollup.
+     * Earlier months only change through the nightly reconciliation.
+     */
+    @Scheduled(fixedDelayString = "${sales.monthly-rollup.refresh-interval:15m}")
+    public void refreshCurrentMonth() {
+        YearMonth month = YearMonth.now();
+        jobLockService.runExclusive(MONTHLY_JOB, () -> rollupService.rebuildMonths(month, month));
+    }
+
+    /**
+     * Backfill closed days only: today's buckets are being incremented by
+     * live sales, and a sale recorded today before the first deploy is
+     * picked up by the next nightly reconciliation. Months are built from
+     * the daily rollup, so they follow it.
+     */
+    private void runBackfill() {
+        try {
+            LocalDateTime earliest = saleRepository.findEarliestSoldAt();
+            if (earliest == null) {
+                return;
+            }
+
+            LocalDate yesterday = LocalDate.now().minusDays(1);
+            jobLockService.runExclusive(DAILY_JOB, () -> {
+                if (!rollupService.isEmpty() || earliest.toLocalDate().isAfter(yesterday)) {
+                    return;
+                }
+                log.info("Sales rollup is empty, backfilling from {}...", earliest.toLocalDate());
+                int buckets = rebuildRange(earliest.toLocalDate(), yesterday);
+                log.info("Sales rollup backfill complete. {} bucket(s) written", buckets);
+            });
+
+            jobLockService.runExclusive(MONTHLY_JOB, () -> {
+                if (!rollupService.isMonthlyEmpty()) {
+                    return;
+                }
+                int months = rollupService.rebuildMonths(YearMonth.from(earliest), YearMonth.now());
+                log.info("Monthly sales rollup backfill complete. {} month(s) written", months);
+            });
+        } catch (RuntimeException e) {
+            log.error("Sales rollup backfill failed", e);
+        }
+    }
+
+    /**
+     * Rebuild a date range in fixed-size chunks, one transaction each.
+     */
+    public int rebuildRange(LocalDate startDate, LocalDate endDate) {
+        int buckets = 0;
+        LocalDate chunkStart = startDate;
+        while (!chunkStart.isAfter(endDate)) {
+            LocalDate chunkEnd = chunkStart.plusDays(BACKFILL_CHUNK_DAYS - 1);
+            if (chunkEnd.isAfter(endDate)) {
+                chunkEnd = endDate;
+            }
+            buckets += rollupService.rebuild(chunkStart, chunkEnd);
+            chunkStart = chunkEnd.plusDays(1);
+        }
+        return buckets;
+    }
+}
@@ -0,0 +1,190 @@
+package com.ahmadramadhan.mudahtitip.sale;
+
+import com.ahmadramadhan.mudahtitip.auth.User;
+import com.ahmadramadhan.mudahtitip.auth.UserRepository;
+import com.ahmadramadhan.mudahtitip.product.ProductRepository;
+import com.ahmadramadhan.mudahtitip.sale.dto.MonthlySalesAggregate;
+import com.ahmadramadhan.mudahtitip.sale.dto.SaleBucketAggregate;
+import com.ahmadramadhan.mudahtitip.shop.ShopRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service maintaining the daily and monthly sales rollup tables.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SaleRollupService {
+
+    private final SaleDailyRollupRepository rollupRepository;
+    private final SaleMonthlyRollupRepository monthlyRollupRepository;
+    private final SaleRepository saleRepository;
+    private final ShopRepository shopRepository;
+    private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+
+    /**
+     * Add a newly recorded sale to its bucket.
+     * Must run inside the transaction that saved the sale so both commit
+     * or roll back together.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSale(Sale sale) {
+        recordSales(List.of(sale));
+    }
+
+    /**
+     * Add newly recorded sales to their buckets, issuing one statement per
+     * bucket rather than per sale.
+     * Must run inside the transaction that saved the sales.
+     * 
+     * Each bucket is inserted or incremented by a single upsert on the
+     * bucket's unique key, so concurrent first sales of a product at a shop
+     * on the same day never fail, and a rolled back sale leaves no bucket.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSales(List<Sale> sales) {
+        Map<BucketKey, List<Sale>> salesByBucket = sales.stream()
+                .collect(Collectors.groupingBy(
+                        sale -> new BucketKey(
+                                sale.getConsignment().getShop().getId(),
+                                sale.getConsignment().getProduct().getId(),
+                                sale.getSoldAt().toLocalDate()),
+                        LinkedHashMap::new,
+                        Collectors.toList()));
+
+        LocalDateTime now = LocalDateTime.now();
+        salesByBucket.forEach((key, bucketSales) -> {
+            User owner = bucketSales.get(0).getConsignment().getProduct().getOwner();
+            rollupRepository.upsertBucket(
+                    nextBucketId(),
+                    key.shopId(), key.productId(),
+                    owner != null ? owner.getId() : null,
+                    key.saleDate(),
+                    bucketSales.size(),
+                    bucketSales.stream().mapToLong(Sale::getQuantitySold).sum(),
+                    sum(bucketSales, Sale::getTotalAmount),
+                    sum(bucketSales, Sale::getShopCommission),
+                    sum(bucketSales, Sale::getConsignorEarning),
+                    now);
+        });
+    }
+
+    /**
+     * Take an ID from the rollup's own sequence for a native insert. It is
+     * unused when the upsert lands on an existing bucket.
+     */
+    private Long nextBucketId() {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        BeforeExecutionGenerator generator = (BeforeExecutionGenerator) session.getFactory()
+                .getMappingMetamodel()
+                .getEntityDescriptor(SaleDailyRollup.class)
+                .getGenerator();
+        return (Long) generator.generate(session, null, null, EventType.INSERT);
+    }
+
+    /**
+     * Recompute all buckets within a date range from the raw sales table.
+     * 
+     * @return number of buckets written
+     */
+    @Transactional
+    public int rebuild(LocalDate startDate, LocalDate endDate) {
+        rollupRepository.deleteBySaleDateBetween(startDate, endDate);
+
+        List<SaleBucketAggregate> buckets = saleRepository.aggregateBuckets(
+                startDate.atStartOfDay(), endDate.atTime(LocalTime.MAX));
+
+        List<SaleDailyRollup> rollups = buckets.stream()
+                .map(bucket -> SaleDailyRollup.builder()
+                        .shop(shopRepository.getReferenceById(bucket.getShopId()))
+                        .product(productRepository.getReferenceById(bucket.getProductId()))
+                        .owner(bucket.getOwnerId() != null
+                                ? userRepository.getReferenceById(bucket.getOwnerId())
+                                : null)
+                        .saleDate(bucket.getSaleDate())
+                        .salesCount(bucket.getSalesCount())
+                        .itemsSold(bucket.getItemsSold())
+                        .totalAmount(bucket.getTotalAmount())
+                        .shopCommission(bucket.getShopCommission())
+                        .consignorEarning(bucket.getConsignorEarning())
+                        .build())
+                .toList();
+
+        rollupRepository.saveAll(rollups);
+
+        log.debug("Rebuilt sales rollup {} to {}: {} bucket(s)", startDate, endDate, rollups.size());
+        return rollups.size();
+    }
+
+    /**
+     * Recompute the platform-wide totals of a month range from the daily
+     * rollup, one row per month with sales.
+     * 
+     * @return number of months written
+     */
+    @Transactional
+    public int rebuildMonths(YearMonth startMonth, YearMonth endMonth) {
+        monthlyRollupRepository.deleteBySaleMonthBetween(startMonth.atDay(1), endMonth.atDay(1));
+
+        List<MonthlySalesAggregate> months = rollupRepository.aggregateMonthly(
+                startMonth.atDay(1), endMonth.atEndOfMonth());
+
+        List<SaleMonthlyRollup> rollups = months.stream()
+                .map(month -> SaleMonthlyRollup.builder()
+                        .saleMonth(LocalDate.of(month.getSaleYear(), month.getSaleMonth(), 1))
+                        .salesCount(month.getSalesCount())
+                        .itemsSold(month.getItemsSold())
+                        .totalAmount(month.getTotalAmount())
+                        .shopCommission(month.getShopCommission())
+                        .consignorEarning(month.getConsignorEarning())
+                        .build())
+                .toList();
+
+        monthlyRollupRepository.saveAll(rollups);
+
+        log.debug("Rebuilt monthly sales rollup {} to {}: {} month(s)", startMonth, endMonth, rollups.size());
+        return rollups.size();
+    }
+
+    /**
+     * Whether the rollup table has never been populated.
+     */
+    public boolean isEmpty() {
+        return rollupRepository.count() == 0;
+    }
+
+    /**
+     * Whether the monthly rollup table has never been populated.
+     */
+    public boolean isMonthlyEmpty() {
+        return monthlyRollupRepository.count() == 0;
+    }
+
+    private static BigDecimal sum(List<Sale> sales, Function<Sale, BigDecimal> field) {
+        return sales.stream().map(field).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private record BucketKey(Long shopId, Long productId, LocalDate saleDate) {
+    }
+}
@@ -1,18 +1,33 @@
 package com.ahmadramadhan.mudahtitip.sale;
 
+import com.ahmadramadhan.mudahtitip.admin.PlatformMetricsSnapshot;
 import com.ahmadramadhan.mudahtitip.common.MessageService;
 import com.ahmadramadhan.mudahtitip.consignment.Consignment;
+import com.ahmadramadhan.mudahtitip.consignment.ConsignmentRepository;
 import com.ahmadramadhan.mudahtitip.consignment.ConsignmentService;
+import com.ahmadramadhan.mudahtitip.consignment.ConsignmentStatus;
 import com.ahmadramadhan.mudahtitip.notification.NotificationService;
+import com.ahmadramadhan.mudahtitip.sale.dto.BatchSaleLineResult;
+import com.ahmadramadhan.mudahtitip.sale.dto.BatchSaleResult;
 import com.ahmadramadhan.mudahtitip.sale.dto.SaleRequest;
+import com.ahmadramadhan.mudahtitip.sale.dto.SalesTotalsAggregate;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service handling sale operations with automatic commission calculation.
@@ -22,9 +37,13 @@ import java.util.List;
 public class SaleService {
 
     private final SaleRepository saleRepository;
+    private final ConsignmentRepository consignmentRepository;
     private final ConsignmentService consignmentService;
     private final MessageService messageService;
     private final NotificationService notificationService;
+    private final SaleRollupService saleRollupService;
+    private final SaleDailyRollupRepository saleDailyRollupRepository;
+    private final PlatformMetricsSnapshot platformMetricsSnapshot;
 
     /**
      * Record a sale for a consignment.
@@ -35,16 +54,127 @@ public class SaleService {
      */
     @Transactional
     public Sale recordSale(SaleRequest request) {
+        // Take the stock first: the conditional update validates availability
+        // and locks the consignment row for the rest of the transaction
+        consignmentService.reduceStock(request.getConsignmentId(), request.getQuantity());
         Consignment consignment = consignmentService.getById(request.getConsignmentId());
 
-        // Validate stock availability
+        Sale sale = saleRepository.save(buildSale(consignment, request, LocalDateTime.now()));
+        saleRollupService.recordSale(sale);
+        platformMetricsSnapshot.recordWrites(1);
+
+        // Notify consignor about the sale
+        notificationService.notifySaleRecorded(sale);
+
+        return sale;
+    }
+
+    /**
+     * Record many sales at once for a shop (e.g. POS end-of-day upload).
+     * 
+     * Lines are grouped by consignment and each consignment is row-locked
+     * once for the whole batch. Lines are then applied in request order;
+     * a line that cannot be fulfilled is reported as failed without
+     * affecting the others. Sales are inserted together, the daily rollup
+     * is updated once per bucket and each consignor receives a single
+     * notification for the batch. The list itself is validated as a
+     * {@code BatchSaleRequest} before it reaches this method.
+     */
+    @Transactional
+    public BatchSaleResult recordSales(Long shopId, List<SaleRequest> requests) {
+        Set<Long> consignmentIds = requests.stream()
+                .map(SaleRequest::getConsignmentId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Consignment> consignments = consignmentIds.isEmpty()
+                ? Collections.<Long, Consignment>emptyMap()
+                : consignmentRepository.findAllByIdForUpdate(consignmentIds).stream()
+                        .collect(Collectors.toMap(Consignment::getId, Function.identity()));
+
+        LocalDateTime soldAt = LocalDateTime.now();
+        BatchSaleLineResult[] results = new BatchSaleLineResult[requests.size()];
+        List<Sale> sales = new ArrayList<>();
+        List<Integer> saleLines = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            SaleRequest request = requests.get(i);
+            Consignment consignment = consignments.get(request.getConsignmentId());
+            String error = validateBatchLine(request, consignment, shopId);
+
+            if (error != null) {
+                results[i] = BatchSaleLineResult.builder()
+                        .index(i)
+                        .consignmentId(request.getConsignmentId())
+                        .quantity(request.getQuantity())
+                        .success(false)
+                        .error(error)
+                        .build();
+                continue;
+            }
+
+            // The row is locked, so the managed entity can be updated directly
+            consignment.setCurrentQuantity(consignment.getCurrentQuantity() - request.getQuantity());
+            if (consignment.getCurrentQuantity() == 0) {
+                consignment.setStatus(ConsignmentStatus.COMPLETED);
+            }
+
+            sales.add(buildSale(consignment, request, soldAt));
+            saleLines.add(i);
+        }
+
+        sales = saleRepository.saveAll(sales);
+        saleRollupService.recordSales(sales);
+        platformMetricsSnapshot.recordWrites(sales.size());
+        notificationService.notifySalesRecorded(sales);
+
+        for (int j = 0; j < sales.size(); j++) {
+            int i = saleLines.get(j);
+            SaleRequest request = requests.get(i);
+            results[i] = BatchSaleLineResult.builder()
+                    .index(i)
+                    .consignmentId(request.getConsignmentId())
+                    .quantity(request.getQuantity())
+                    .success(true)
+                    .saleId(sales.get(j).getId())
+                    .build();
+        }
+
+        return BatchSaleResult.builder()
+                .successCount(sales.size())
+                .failureCount(requests.size() - sales.size())
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    /**
+     * Check a batch line against the locked consignment.
+     * 
+     * @return the error message, or null if the line can be recorded
+     */
+    private String validateBatchLine(SaleRequest request, Consignment consignment, Long shopId) {
+        if (consignment == null) {
+            return messageService.getMessage("consignment.not.found");
+        }
+        if (!consignment.getShop().getId().equals(shopId)) {
+            return messageService.getMessage("consignment.access.denied");
+        }
+        if (request.getQuantity() == null || request.getQuantity() <= 0) {
+            return messageService.getMessage("sale.quantity.invalid");
+        }
         if (consignment.getCurrentQuantity() < request.getQuantity()) {
-            throw new IllegalArgumentException(
-                    messageService.getMessage("consignment.stock.insufficient.detail",
-                            consignment.getCurrentQuantity(), request.getQuantity()));
+            return messageService.getMessage("consignment.stock.insufficient.detail",
+                    consignment.getCurrentQuantity(), request.getQuantity());
         }
+        return null;
+    }
 
-        // Calculate amounts
+    /**
+     * Build a sale, calculating:
+     * - Total amount (quantity * selling price)
+     * - Shop commission (total * commission percent / 100)
+     * - Consignor earning (total - commission)
+     */
+    private Sale buildSale(Consignment consignment, SaleRequest request, LocalDateTime soldAt) {
         BigDecimal quantity = BigDecimal.valueOf(request.getQuantity());
         BigDecimal totalAmount = consignment.getSellingPrice().multiply(quantity);
 
@@ -54,26 +184,15 @@ public class SaleService {
                 .setScale(2, RoundingMode.HALF_UP);
         BigDecimal consignorEarning = totalAmount.subtract(shopCommission);
 
-        // Create sale record
-        Sale sale = Sale.builder()
+        return Sale.builder()
                 .consignment(consignment)
                 .quantitySold(request.getQuantity())
                 .totalAmount(totalAmount)
                 .shopCommission(shopCommission)
                 .consignorEarning(consignorEarning)
-                .soldAt(LocalDateTime.now())
+                .soldAt(soldAt)
                 .notes(request.getNotes())
                 .build();
-
-        sale = saleRepository.save(sale);
-
-        // Reduce stock
-        consignmentService.reduceStock(consignment.getId(), request.getQuantity());
-
-        // Notify consignor about the sale
-        notificationService.notifySaleRecorded(sale);
-
-        return sale;
     }
 
     /**
@@ -117,4 +236,19 @@ public class SaleService {
     public BigDecimal getTotalConsignorEarnings(Long ownerId, LocalDateTime start, LocalDateTime end) {
         return saleRepository.sumConsignorEarningByOwnerAndDateRange(ownerId, start, end);
     }
+
+    /**
+     * Get sales totals for a shop within a date range, read from the daily rollup.
+     */
+    public SalesTotalsAggregate getSalesTotalsByShop(Long shopId, LocalDate start, LocalDate end) {
+        return saleDailyRollupRepository.sumByShop(shopId, start, end);
+    }
+
+    /**
+     * Get sales totals for a consignor within a date range, read from the daily
+     * rollup.
+     */
+    public SalesTotalsAggregate getSalesTotalsByOwner(Long ownerId, LocalDate start, LocalDate end) {
+        return saleDailyRollupRepository.sumByOwner(ownerId, start, end);
+    }
 }
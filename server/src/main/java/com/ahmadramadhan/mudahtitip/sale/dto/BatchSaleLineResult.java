@@ -0,0 +1,35 @@
+package com.ahmadramadhan.mudahtitip.sale.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a single line of a batch sale upload.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchSaleLineResult {
+
+    /**
+     * Position of the line in the request (0-based).
+     */
+    private int index;
+
+    private Long consignmentId;
+    private Integer quantity;
+    private boolean success;
+
+    /**
+     * ID of the recorded sale, set on success.
+     */
+    private Long saleId;
+
+    /**
+     * Reason the line was rejected, set on failure.
+     */
+    private String error;
+}
@@ -0,0 +1,31 @@
+package com.ahmadramadhan.mudahtitip.sale.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for recording many sales at once (e.g. POS end-of-day upload).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchSaleRequest {
+
+    /**
+     * Maximum number of lines accepted in one batch upload.
+     */
+    public static final int MAX_SALES = 1000;
+
+    @NotEmpty(message = "Daftar penjualan tidak boleh kosong")
+    @Size(max = MAX_SALES, message = "Maksimal {max} penjualan per unggahan")
+    private List<@NotNull(message = "Baris penjualan tidak boleh kosong") @Valid SaleRequest> sales;
+}
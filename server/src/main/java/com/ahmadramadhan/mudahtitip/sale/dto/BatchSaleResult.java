@@ -0,0 +1,23 @@
+package com.ahmadramadhan.mudahtitip.sale.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the result of a batch sale upload.
+ * Lines are reported in request order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchSaleResult {
+
+    private int successCount;
+    private int failureCount;
+    private List<BatchSaleLineResult> results;
+}
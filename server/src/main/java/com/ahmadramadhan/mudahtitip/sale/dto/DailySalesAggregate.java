@@ -0,0 +1,24 @@
+package com.ahmadramadhan.mudahtitip.sale.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Projection for sales aggregated per calendar day.
+ * Holds both commission and earning sums so the caller can pick the side
+ * relevant to the current user.
+ */
+public interface DailySalesAggregate {
+
+    LocalDate getSaleDate();
+
+    Long getSalesCount();
+
+    Long getItemsSold();
+
+    BigDecimal getTotalAmount();
+
+    BigDecimal getShopCommission();
+
+    BigDecimal getConsignorEarning();
+}
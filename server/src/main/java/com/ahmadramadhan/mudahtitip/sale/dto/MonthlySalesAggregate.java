@@ -0,0 +1,23 @@
+package com.ahmadramadhan.mudahtitip.sale.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection for sales aggregated per calendar month.
+ */
+public interface MonthlySalesAggregate {
+
+    Integer getSaleYear();
+
+    Integer getSaleMonth();
+
+    Long getSalesCount();
+
+    Long getItemsSold();
+
+    BigDecimal getTotalAmount();
+
+    BigDecimal getShopCommission();
+
+    BigDecimal getConsignorEarning();
+}
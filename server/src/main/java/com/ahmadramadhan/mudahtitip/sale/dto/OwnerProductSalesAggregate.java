@@ -0,0 +1,19 @@
+package com.ahmadramadhan.mudahtitip.sale.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection for one consignor's sales of one product over a date range.
+ */
+public interface OwnerProductSalesAggregate {
+
+    Long getOwnerId();
+
+    String getProductName();
+
+    Long getSalesCount();
+
+    Long getItemsSold();
+
+    BigDecimal getConsignorEarning();
+}
@@ -0,0 +1,23 @@
+package com.ahmadramadhan.mudahtitip.sale.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection for sales aggregated per product.
+ */
+public interface ProductSalesAggregate {
+
+    Long getProductId();
+
+    String getProductName();
+
+    String getCategory();
+
+    Long getItemsSold();
+
+    BigDecimal getTotalAmount();
+
+    BigDecimal getShopCommission();
+
+    BigDecimal getConsignorEarning();
+}
@@ -0,0 +1,29 @@
+package com.ahmadramadhan.mudahtitip.sale.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Projection for raw sales grouped by shop, product and day.
+ * Used to (re)build the daily rollup table.
+ */
+public interface SaleBucketAggregate {
+
+    Long getShopId();
+
+    Long getProductId();
+
+    Long getOwnerId();
+
+    LocalDate getSaleDate();
+
+    Long getSalesCount();
+
+    Long getItemsSold();
+
+    BigDecimal getTotalAmount();
+
+    BigDecimal getShopCommission();
+
+    BigDecimal getConsignorEarning();
+}
@@ -0,0 +1,19 @@
+package com.ahmadramadhan.mudahtitip.sale.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection for sales totals over a date range.
+ */
+public interface SalesTotalsAggregate {
+
+    Long getSalesCount();
+
+    Long getItemsSold();
+
+    BigDecimal getTotalAmount();
+
+    BigDecimal getShopCommission();
+
+    BigDecimal getConsignorEarning();
+}
@@ -7,6 +7,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
@@ -27,7 +28,7 @@ import java.util.List;
  * Each shop has one owner (SHOP_OWNER role user).
  */
 @Entity
-@Table(name = "shops")
+@Table(name = "shops", indexes = @Index(name = "idx_shops_is_verified", columnList = "is_verified"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -1,14 +1,17 @@
 package com.ahmadramadhan.mudahtitip.shop;
 
 import com.ahmadramadhan.mudahtitip.auth.User;
+import com.ahmadramadhan.mudahtitip.shop.dto.ShopCounts;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ShopRepository extends JpaRepository<Shop, Long> {
+public interface ShopRepository extends JpaRepository<Shop, Long>, JpaSpecificationExecutor<Shop> {
 
     Optional<Shop> findByOwner(User owner);
 
@@ -17,4 +20,13 @@ public interface ShopRepository extends JpaRepository<Shop, Long> {
     List<Shop> findByIsActiveTrue();
 
     boolean existsByOwner(User owner);
+
+    /**
+     * Shop counts for the admin dashboard in one pass over the table.
+     */
+    @Query("SELECT COUNT(s) AS total, " +
+            "COALESCE(SUM(CASE WHEN s.isActive = true THEN 1 ELSE 0 END), 0) AS active, " +
+            "COALESCE(SUM(CASE WHEN s.isVerified = false THEN 1 ELSE 0 END), 0) AS unverified " +
+            "FROM Shop s")
+    ShopCounts countForPlatform();
 }
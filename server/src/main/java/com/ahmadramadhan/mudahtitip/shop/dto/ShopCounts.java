@@ -0,0 +1,13 @@
+package com.ahmadramadhan.mudahtitip.shop.dto;
+
+/**
+ * Projection for platform-wide shop counts.
+ */
+public interface ShopCounts {
+
+    Long getTotal();
+
+    Long getActive();
+
+    Long getUnverified();
+}
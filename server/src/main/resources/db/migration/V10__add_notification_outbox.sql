@@ -0,0 +1,20 @@
+-- Migration V10: Notification outbox
+-- Business transactions write queued notifications here; the dispatcher
+-- turns them into notifications in batches and deletes them. Rows are
+-- short-lived, so only the primary key is indexed.
+
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    id BIGINT NOT NULL PRIMARY KEY,
+    recipient_id BIGINT NOT NULL,
+    type VARCHAR(50) NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    message VARCHAR(500) NOT NULL,
+    reference_id BIGINT NULL,
+    reference_type VARCHAR(255) NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NULL
+);
+
+CREATE TABLE IF NOT EXISTS notification_outbox_seq (next_val BIGINT);
+DELETE FROM notification_outbox_seq;
+INSERT INTO notification_outbox_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM notification_outbox;
@@ -0,0 +1,20 @@
+-- Migration V11: Notification retention
+-- Lists and unread counts filter by recipient and read state, newest first
+CREATE INDEX idx_notifications_recipient_read_created ON notifications (recipient_id, is_read, created_at);
+
+-- Read notifications past the retention period are copied here when
+-- notification.retention.archive is on. IDs are kept from notifications.
+CREATE TABLE IF NOT EXISTS notifications_archive (
+    id BIGINT NOT NULL PRIMARY KEY,
+    recipient_id BIGINT NOT NULL,
+    type VARCHAR(50) NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    message VARCHAR(500) NOT NULL,
+    reference_id BIGINT NULL,
+    reference_type VARCHAR(255) NULL,
+    read_at DATETIME(6) NULL,
+    created_at DATETIME(6) NOT NULL,
+    archived_at DATETIME(6) NOT NULL
+);
+
+CREATE INDEX idx_notifications_archive_recipient ON notifications_archive (recipient_id);
@@ -0,0 +1,4 @@
+-- Migration V12: Keyset paging for notification lists
+-- Pages seek on (recipient_id, created_at, id) newest first, so each page
+-- reads only its own rows however deep the user scrolls.
+CREATE INDEX idx_notifications_recipient_created ON notifications (recipient_id, created_at, id);
@@ -0,0 +1,11 @@
+-- Migration V13: Sale notification digests
+-- A day's sales of one consignment are merged into a single notification
+-- keyed SALE_RECORDED:<consignment>:<day> that keeps a running units total.
+ALTER TABLE notifications ADD COLUMN digest_quantity INT NULL;
+
+ALTER TABLE notification_outbox
+ADD COLUMN dedup_key VARCHAR(100) NULL,
+ADD COLUMN quantity INT NULL;
+
+-- On by default; consignors can switch back to one notification per sale
+ALTER TABLE notification_preferences ADD COLUMN sale_digest_enabled BOOLEAN NOT NULL DEFAULT TRUE;
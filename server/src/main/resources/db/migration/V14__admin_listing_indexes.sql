@@ -0,0 +1,7 @@
+-- Migration V14: Admin listing indexes
+-- Admin user and shop listings filter by these columns and page in ID
+-- order. InnoDB secondary indexes end with the primary key, so each one
+-- serves "WHERE col = ? AND id > ? ORDER BY id" without a sort.
+CREATE INDEX idx_users_role ON users (role);
+CREATE INDEX idx_users_status ON users (status);
+CREATE INDEX idx_shops_is_verified ON shops (is_verified);
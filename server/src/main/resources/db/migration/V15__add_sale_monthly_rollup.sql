@@ -0,0 +1,24 @@
+-- Migration V15: Monthly sales rollup table
+-- Platform-wide sales per month, rebuilt from sale_daily_rollup by
+-- SaleRollupService. The application backfills it on first startup and
+-- refreshes the current month periodically.
+
+CREATE TABLE IF NOT EXISTS sale_monthly_rollup (
+    id BIGINT NOT NULL PRIMARY KEY,
+    sale_month DATE NOT NULL,
+    sales_count BIGINT NOT NULL,
+    items_sold BIGINT NOT NULL,
+    total_amount DECIMAL(16, 2) NOT NULL,
+    shop_commission DECIMAL(16, 2) NOT NULL,
+    consignor_earning DECIMAL(16, 2) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NULL,
+    CONSTRAINT uk_sale_monthly_rollup_month UNIQUE (sale_month)
+);
+
+CREATE TABLE IF NOT EXISTS sale_monthly_rollup_seq (next_val BIGINT);
+DELETE FROM sale_monthly_rollup_seq;
+INSERT INTO sale_monthly_rollup_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM sale_monthly_rollup;
+
+-- Monthly rebuilds range-scan the daily rollup by date
+CREATE INDEX idx_sale_daily_rollup_sale_date ON sale_daily_rollup (sale_date);
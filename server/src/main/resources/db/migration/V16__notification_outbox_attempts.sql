@@ -0,0 +1,7 @@
+-- Migration V16: Outbox delivery attempts
+-- Failed deliveries are counted per entry. After
+-- notification.dispatch.max-attempts the entry is dead-lettered: it stays
+-- in the table with its last error and the sweep no longer picks it up.
+
+ALTER TABLE notification_outbox ADD COLUMN attempts INT NOT NULL DEFAULT 0;
+ALTER TABLE notification_outbox ADD COLUMN last_error VARCHAR(500) NULL;
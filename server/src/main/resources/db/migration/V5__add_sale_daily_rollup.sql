@@ -0,0 +1,27 @@
+-- Migration V5: Daily sales rollup table
+-- Pre-aggregated sales per (shop, product, day), maintained by SaleRollupService.
+-- The application backfills it from existing sales on first startup.
+
+CREATE TABLE IF NOT EXISTS sale_daily_rollup (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    shop_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    owner_id BIGINT NULL,
+    sale_date DATE NOT NULL,
+    sales_count BIGINT NOT NULL,
+    items_sold BIGINT NOT NULL,
+    total_amount DECIMAL(14, 2) NOT NULL,
+    shop_commission DECIMAL(14, 2) NOT NULL,
+    consignor_earning DECIMAL(14, 2) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NULL,
+    CONSTRAINT uk_sale_daily_rollup_bucket UNIQUE (shop_id, product_id, sale_date),
+    CONSTRAINT fk_sale_daily_rollup_shop FOREIGN KEY (shop_id) REFERENCES shops (id),
+    CONSTRAINT fk_sale_daily_rollup_product FOREIGN KEY (product_id) REFERENCES products (id),
+    CONSTRAINT fk_sale_daily_rollup_owner FOREIGN KEY (owner_id) REFERENCES users (id)
+);
+
+CREATE INDEX idx_sale_daily_rollup_owner_date ON sale_daily_rollup (owner_id, sale_date);
+
+-- Range scans on sold_at are used by the rollup rebuild
+CREATE INDEX idx_sales_sold_at ON sales (sold_at);
@@ -0,0 +1,53 @@
+-- Migration V6: Sequence-based ID generation
+-- Entities now take IDs from one sequence per table (<table>_seq) instead of
+-- AUTO_INCREMENT, so Hibernate can batch inserts. MySQL has no sequences, so
+-- Hibernate emulates each one with a single-row table holding the next value.
+--
+-- Run this with the application stopped, before deploying the new version.
+-- It is safe to re-run: each table is re-seeded with MAX(id) + 1 so new IDs
+-- never collide with existing rows (IDs are handed out with the pooled-lo
+-- optimizer, which starts each block at the stored value).
+
+CREATE TABLE IF NOT EXISTS users_seq (next_val BIGINT);
+DELETE FROM users_seq;
+INSERT INTO users_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM users;
+
+CREATE TABLE IF NOT EXISTS shops_seq (next_val BIGINT);
+DELETE FROM shops_seq;
+INSERT INTO shops_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM shops;
+
+CREATE TABLE IF NOT EXISTS products_seq (next_val BIGINT);
+DELETE FROM products_seq;
+INSERT INTO products_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM products;
+
+CREATE TABLE IF NOT EXISTS guest_consignors_seq (next_val BIGINT);
+DELETE FROM guest_consignors_seq;
+INSERT INTO guest_consignors_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM guest_consignors;
+
+CREATE TABLE IF NOT EXISTS consignments_seq (next_val BIGINT);
+DELETE FROM consignments_seq;
+INSERT INTO consignments_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM consignments;
+
+CREATE TABLE IF NOT EXISTS agreements_seq (next_val BIGINT);
+DELETE FROM agreements_seq;
+INSERT INTO agreements_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM agreements;
+
+CREATE TABLE IF NOT EXISTS sales_seq (next_val BIGINT);
+DELETE FROM sales_seq;
+INSERT INTO sales_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM sales;
+
+CREATE TABLE IF NOT EXISTS complaints_seq (next_val BIGINT);
+DELETE FROM complaints_seq;
+INSERT INTO complaints_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM complaints;
+
+CREATE TABLE IF NOT EXISTS notifications_seq (next_val BIGINT);
+DELETE FROM notifications_seq;
+INSERT INTO notifications_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM notifications;
+
+CREATE TABLE IF NOT EXISTS notification_preferences_seq (next_val BIGINT);
+DELETE FROM notification_preferences_seq;
+INSERT INTO notification_preferences_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM notification_preferences;
+
+CREATE TABLE IF NOT EXISTS sale_daily_rollup_seq (next_val BIGINT);
+DELETE FROM sale_daily_rollup_seq;
+INSERT INTO sale_daily_rollup_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM sale_daily_rollup;
@@ -0,0 +1,2 @@
+-- Expiry reminders select ACTIVE consignments by expiry date range
+CREATE INDEX idx_consignments_status_expiry ON consignments (status, expiry_date);
@@ -0,0 +1,7 @@
+-- Scheduled alerts carry a per-day dedup key; NULL for event notifications
+ALTER TABLE notifications ADD COLUMN dedup_key VARCHAR(100) NULL;
+
+CREATE UNIQUE INDEX uk_notifications_recipient_dedup ON notifications (recipient_id, dedup_key);
+
+-- Schedulers load the keys sent since the start of the day
+CREATE INDEX idx_notifications_created_at ON notifications (created_at);
@@ -0,0 +1,20 @@
+-- Migration V9: Scheduled job leases
+-- One row per scheduled job. An instance runs the job only while it holds
+-- an unexpired lease (lock_until), which it extends on a heartbeat.
+-- Rows are created on first use.
+
+CREATE TABLE IF NOT EXISTS job_locks (
+    id BIGINT NOT NULL PRIMARY KEY,
+    name VARCHAR(64) NOT NULL,
+    locked_by VARCHAR(255) NULL,
+    locked_at DATETIME(6) NULL,
+    heartbeat_at DATETIME(6) NULL,
+    lock_until DATETIME(6) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NULL,
+    CONSTRAINT uk_job_locks_name UNIQUE (name)
+);
+
+CREATE TABLE IF NOT EXISTS job_locks_seq (next_val BIGINT);
+DELETE FROM job_locks_seq;
+INSERT INTO job_locks_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM job_locks;
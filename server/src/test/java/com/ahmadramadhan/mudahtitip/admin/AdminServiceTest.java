@@ -0,0 +1,100 @@
+package com.ahmadramadhan.mudahtitip.admin;
+
+import com.ahmadramadhan.mudahtitip.admin.dto.UserAdminDto;
+import com.ahmadramadhan.mudahtitip.auth.User;
+import com.ahmadramadhan.mudahtitip.auth.UserRepository;
+import com.ahmadramadhan.mudahtitip.auth.UserRole;
+import com.ahmadramadhan.mudahtitip.consignment.ConsignmentRepository;
+import com.ahmadramadhan.mudahtitip.consignment.dto.OwnerConsignmentCount;
+import com.ahmadramadhan.mudahtitip.product.ProductRepository;
+import com.ahmadramadhan.mudahtitip.product.dto.OwnerProductCount;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AdminService.
+ */
+@ExtendWith(MockitoExtension.class)
+class AdminServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ConsignmentRepository consignmentRepository;
+
+    @InjectMocks
+    private AdminService adminService;
+
+    @Nested
+    @DisplayName("getAllUsers")
+    class GetAllUsersTests {
+
+        @Test
+        @DisplayName("should count statistics for the whole page with one grouped query per table")
+        void getAllUsers_batchesCounts() {
+            // given
+            User first = createUser(1L, "first@example.com");
+            User second = createUser(2L, "second@example.com");
+            OwnerProductCount productCount = ownerProductCount(1L, 3L);
+            OwnerConsignmentCount consignmentCount = ownerConsignmentCount(1L, 5L);
+            when(userRepository.findAll(ArgumentMatchers.<Specification<User>>any(), any(Pageable.class)))
+                    .thenReturn(new PageImpl<>(List.of(first, second)));
+            when(productRepository.countByOwnerIds(List.of(1L, 2L))).thenReturn(List.of(productCount));
+            when(consignmentRepository.countByProductOwnerIds(List.of(1L, 2L))).thenReturn(List.of(consignmentCount));
+
+            // when
+            Slice<UserAdminDto> page = adminService.getAllUsers(null, null, null, PageRequest.of(0, 10));
+
+            // then
+            assertThat(page.getContent()).extracting(UserAdminDto::getTotalProducts).containsExactly(3L, 0L);
+            assertThat(page.getContent()).extracting(UserAdminDto::getTotalConsignments).containsExactly(5L, 0L);
+            verify(productRepository, never()).findAll();
+            verify(consignmentRepository, never()).findAll();
+        }
+    }
+
+    private User createUser(Long id, String email) {
+        User user = User.builder()
+                .name("Test User")
+                .email(email)
+                .role(UserRole.CONSIGNOR)
+                .build();
+        user.setId(id);
+        return user;
+    }
+
+    private OwnerProductCount ownerProductCount(Long ownerId, Long productCount) {
+        OwnerProductCount count = mock(OwnerProductCount.class);
+        when(count.getOwnerId()).thenReturn(ownerId);
+        when(count.getProductCount()).thenReturn(productCount);
+        return count;
+    }
+
+    private OwnerConsignmentCount ownerConsignmentCount(Long ownerId, Long consignmentCount) {
+        OwnerConsignmentCount count = mock(OwnerConsignmentCount.class);
+        when(count.getOwnerId()).thenReturn(ownerId);
+        when(count.getConsignmentCount()).thenReturn(consignmentCount);
+        return count;
+    }
+}
@@ -0,0 +1,216 @@
+package com.ahmadramadhan.mudahtitip.admin;
+
+import com.ahmadramadhan.mudahtitip.admin.dto.PlatformMetricsDto;
+import com.ahmadramadhan.mudahtitip.auth.UserRepository;
+import com.ahmadramadhan.mudahtitip.auth.dto.UserCounts;
+import com.ahmadramadhan.mudahtitip.consignment.ConsignmentRepository;
+import com.ahmadramadhan.mudahtitip.consignment.dto.ConsignmentCounts;
+import com.ahmadramadhan.mudahtitip.product.ProductRepository;
+import com.ahmadramadhan.mudahtitip.product.dto.ProductCounts;
+import com.ahmadramadhan.mudahtitip.sale.SaleDailyRollupRepository;
+import com.ahmadramadhan.mudahtitip.sale.SaleMonthlyRollup;
+import com.ahmadramadhan.mudahtitip.sale.SaleMonthlyRollupRepository;
+import com.ahmadramadhan.mudahtitip.sale.dto.SalesTotalsAggregate;
+import com.ahmadramadhan.mudahtitip.shop.ShopRepository;
+import com.ahmadramadhan.mudahtitip.shop.dto.ShopCounts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PlatformMetricsSnapshot.
+ */
+@ExtendWith(MockitoExtension.class)
+class PlatformMetricsSnapshotTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ShopRepository shopRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ConsignmentRepository consignmentRepository;
+
+    @Mock
+    private SaleMonthlyRollupRepository saleMonthlyRollupRepository;
+
+    @Mock
+    private SaleDailyRollupRepository saleDailyRollupRepository;
+
+    private PlatformMetricsSnapshot platformMetricsSnapshot;
+
+    private UserCounts users;
+
+    @BeforeEach
+    void setUp() {
+        platformMetricsSnapshot = new PlatformMetricsSnapshot(userRepository, shopRepository, productRepository,
+                consignmentRepository, saleMonthlyRollupRepository, saleDailyRollupRepository, 100);
+
+        users = mock(UserCounts.class);
+        SalesTotalsAggregate totals = mock(SalesTotalsAggregate.class);
+        lenient().when(users.getTotal()).thenReturn(12L);
+        lenient().when(users.getCreatedSince()).thenReturn(2L);
+        lenient().when(totals.getTotalAmount()).thenReturn(new BigDecimal("1000.00"));
+        lenient().when(totals.getShopCommission()).thenReturn(new BigDecimal("100.00"));
+        lenient().when(totals.getSalesCount()).thenReturn(40L);
+        lenient().when(userRepository.countForPlatform(any(), any())).thenReturn(users);
+        lenient().when(shopRepository.countForPlatform()).thenReturn(mock(ShopCounts.class));
+        lenient().when(productRepository.countForPlatform()).thenReturn(mock(ProductCounts.class));
+        lenient().when(consignmentRepository.countForPlatform(any())).thenReturn(mock(ConsignmentCounts.class));
+        lenient().when(saleMonthlyRollupRepository.sumAll()).thenReturn(totals);
+        lenient().when(saleDailyRollupRepository.sumBetween(any(), any())).thenReturn(totals);
+    }
+
+    @AfterEach
+    void tearDown() {
+        platformMetricsSnapshot.shutdown();
+    }
+
+    @Nested
+    @DisplayName("get")
+    class GetTests {
+
+        @Test
+        @DisplayName("should read financial totals from the monthly rollup")
+        void get_readsMonthlyRollup() {
+            // given
+            LocalDate thisMonth = LocalDate.now().withDayOfMonth(1);
+            when(saleMonthlyRollupRepository.findBySaleMonthIn(List.of(thisMonth)))
+                    .thenReturn(List.of(monthlyRollup(thisMonth, "300.00", "30.00")));
+
+            // when
+            PlatformMetricsDto metrics = platformMetricsSnapshot.get();
+
+            // then
+            assertThat(metrics.getTotalGMV()).isEqualByComparingTo("1000.00");
+            assertThat(metrics.getMonthlyGMV()).isEqualByComparingTo("300.00");
+            assertThat(metrics.getPlatformRevenue()).isEqualByComparingTo("100.00");
+            assertThat(metrics.getTotalTransactions()).isEqualTo(40L);
+            assertThat(metrics.getUserGrowthRate()).isEqualTo(20.0);
+            assertThat(metrics.getGeneratedAt()).isNotNull();
+        }
+
+        @Test
+        @DisplayName("should compare revenue month-to-date with the same days of last month")
+        void get_revenueGrowthMonthToDate() {
+            // given
+            LocalDate today = LocalDate.now();
+            LocalDate thisMonth = today.withDayOfMonth(1);
+            SalesTotalsAggregate monthToDate = mock(SalesTotalsAggregate.class);
+            SalesTotalsAggregate lastMonthToDate = mock(SalesTotalsAggregate.class);
+            when(monthToDate.getShopCommission()).thenReturn(new BigDecimal("30.00"));
+            when(lastMonthToDate.getShopCommission()).thenReturn(new BigDecimal("20.00"));
+            when(saleDailyRollupRepository.sumBetween(thisMonth, today)).thenReturn(monthToDate);
+            when(saleDailyRollupRepository.sumBetween(thisMonth.minusMonths(1), today.minusMonths(1)))
+                    .thenReturn(lastMonthToDate);
+
+            // when
+            PlatformMetricsDto metrics = platformMetricsSnapshot.get();
+
+            // then
+            assertThat(metrics.getRevenueGrowthRate()).isEqualTo(50.0);
+        }
+
+        @Test
+        @DisplayName("should serve later reads from the snapshot without querying")
+        void get_servesSnapshot() {
+            // given
+            PlatformMetricsDto first = platformMetricsSnapshot.get();
+
+            // when
+            PlatformMetricsDto second = platformMetricsSnapshot.get();
+
+            // then
+            assertThat(second).isSameAs(first);
+            verify(userRepository, times(1)).countForPlatform(any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("refresh")
+    class RefreshTests {
+
+        @Test
+        @DisplayName("should join the refresh already running instead of starting another")
+        void refresh_joinsInFlight() {
+            // given
+            AtomicReference<CompletableFuture<PlatformMetricsDto>> joined = new AtomicReference<>();
+            when(userRepository.countForPlatform(any(), any())).thenAnswer(inv -> {
+                joined.set(platformMetricsSnapshot.refresh());
+                return users;
+            });
+
+            // when
+            CompletableFuture<PlatformMetricsDto> refreshed = platformMetricsSnapshot.refresh();
+
+            // then
+            assertThat(joined.get()).isSameAs(refreshed);
+            assertThat(refreshed).isCompleted();
+            verify(userRepository, times(1)).countForPlatform(any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("recordWrites")
+    class RecordWritesTests {
+
+        @Test
+        @DisplayName("should queue one refresh for a burst of writes")
+        void recordWrites_burst_queuesOneRefresh() throws Exception {
+            // given
+            platformMetricsSnapshot.shutdown();
+            platformMetricsSnapshot = new PlatformMetricsSnapshot(userRepository, shopRepository,
+                    productRepository, consignmentRepository, saleMonthlyRollupRepository,
+                    saleDailyRollupRepository, 1);
+            platformMetricsSnapshot.get();
+
+            CountDownLatch refreshing = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            when(userRepository.countForPlatform(any(), any())).thenAnswer(inv -> {
+                refreshing.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return users;
+            }).thenReturn(users);
+            platformMetricsSnapshot.recordWrites(1);
+            assertThat(refreshing.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // when
+            for (int i = 0; i < 50; i++) {
+                platformMetricsSnapshot.recordWrites(1);
+            }
+            release.countDown();
+
+            // then
+            verify(userRepository, after(500).times(3)).countForPlatform(any(), any());
+        }
+    }
+
+    private SaleMonthlyRollup monthlyRollup(LocalDate month, String totalAmount, String shopCommission) {
+        return SaleMonthlyRollup.builder()
+                .saleMonth(month)
+                .totalAmount(new BigDecimal(totalAmount))
+                .shopCommission(new BigDecimal(shopCommission))
+                .build();
+    }
+}
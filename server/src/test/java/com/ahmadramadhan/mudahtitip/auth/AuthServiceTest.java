@@ -1,5 +1,6 @@
 package com.ahmadramadhan.mudahtitip.auth;
 
+import com.ahmadramadhan.mudahtitip.admin.PlatformMetricsSnapshot;
 import com.ahmadramadhan.mudahtitip.auth.dto.AuthResponse;
 import com.ahmadramadhan.mudahtitip.auth.dto.LoginRequest;
 import com.ahmadramadhan.mudahtitip.auth.dto.RegisterRequest;
@@ -41,6 +42,9 @@ class AuthServiceTest {
     @Mock
     private JwtUtil jwtUtil;
 
+    @Mock
+    private PlatformMetricsSnapshot platformMetricsSnapshot;
+
     @InjectMocks
     private AuthService authService;
 
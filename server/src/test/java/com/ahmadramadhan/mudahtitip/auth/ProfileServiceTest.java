@@ -5,6 +5,7 @@ import com.ahmadramadhan.mudahtitip.auth.dto.UpdateEmailRequest;
 import com.ahmadramadhan.mudahtitip.auth.dto.UpdatePasswordRequest;
 import com.ahmadramadhan.mudahtitip.auth.dto.UpdateProfileRequest;
 import com.ahmadramadhan.mudahtitip.common.security.JwtUtil;
+import com.ahmadramadhan.mudahtitip.common.security.PrincipalCache;
 import com.ahmadramadhan.mudahtitip.shop.ShopRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -41,6 +42,9 @@ class ProfileServiceTest {
     @Mock
     private JwtUtil jwtUtil;
 
+    @Mock
+    private PrincipalCache principalCache;
+
     @InjectMocks
     private AuthService authService;
 
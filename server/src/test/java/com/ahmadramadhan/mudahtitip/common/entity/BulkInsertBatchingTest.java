@@ -0,0 +1,177 @@
+package com.ahmadramadhan.mudahtitip.common.entity;
+
+import com.ahmadramadhan.mudahtitip.auth.User;
+import com.ahmadramadhan.mudahtitip.auth.UserRole;
+import com.ahmadramadhan.mudahtitip.consignment.Consignment;
+import com.ahmadramadhan.mudahtitip.notification.Notification;
+import com.ahmadramadhan.mudahtitip.notification.NotificationType;
+import com.ahmadramadhan.mudahtitip.product.Product;
+import com.ahmadramadhan.mudahtitip.sale.Sale;
+import com.ahmadramadhan.mudahtitip.shop.Shop;
+import lombok.extern.slf4j.Slf4j;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * JDBC batching of bulk notification and sale writes.
+ * 
+ * Compares a JDBC batch size of 1 (what IDENTITY generation forced before)
+ * with the configured batch size enabled by sequence-based IDs. The
+ * throughput comparison is tagged as a benchmark.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Slf4j
+class BulkInsertBatchingTest {
+
+    private static final int ROWS = 200;
+    private static final int BENCHMARK_ROWS = 2000;
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private User consignor;
+    private Consignment consignment;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(org.hibernate.SessionFactory.class)
+                .getStatistics();
+
+        User shopOwner = User.builder()
+                .name("Shop Owner")
+                .email("owner@example.com")
+                .passwordHash("hashed")
+                .role(UserRole.SHOP_OWNER)
+                .build();
+        consignor = User.builder()
+                .name("Consignor")
+                .email("consignor@example.com")
+                .passwordHash("hashed")
+                .role(UserRole.CONSIGNOR)
+                .build();
+        entityManager.persist(shopOwner);
+        entityManager.persist(consignor);
+
+        Shop shop = Shop.builder().name("Toko Test").owner(shopOwner).build();
+        Product product = Product.builder()
+                .name("Keripik")
+                .basePrice(BigDecimal.valueOf(10000))
+                .owner(consignor)
+                .build();
+        entityManager.persist(shop);
+        entityManager.persist(product);
+
+        consignment = Consignment.builder()
+                .product(product)
+                .shop(shop)
+                .initialQuantity(BENCHMARK_ROWS)
+                .currentQuantity(BENCHMARK_ROWS)
+                .sellingPrice(BigDecimal.valueOf(12000))
+                .commissionPercent(BigDecimal.TEN)
+                .build();
+        entityManager.persist(consignment);
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("notification inserts should be batched")
+    void notificationInserts() {
+        Result unbatched = insert(1, ROWS, this::notification);
+        Result batched = insert(BATCH_SIZE, ROWS, this::notification);
+
+        assertThat(batched.statements()).isLessThan(unbatched.statements() / 10);
+    }
+
+    @Test
+    @DisplayName("sale inserts should be batched")
+    void saleInserts() {
+        Result unbatched = insert(1, ROWS, this::sale);
+        Result batched = insert(BATCH_SIZE, ROWS, this::sale);
+
+        assertThat(batched.statements()).isLessThan(unbatched.statements() / 10);
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("batched insert throughput")
+    void insertThroughput() {
+        benchmark("notifications", this::notification);
+        benchmark("sales", this::sale);
+    }
+
+    private void benchmark(String label, IntFunction<Object> rowFactory) {
+        // Warm up both paths before measuring
+        insert(1, BENCHMARK_ROWS, rowFactory);
+        insert(BATCH_SIZE, BENCHMARK_ROWS, rowFactory);
+
+        Result unbatched = insert(1, BENCHMARK_ROWS, rowFactory);
+        Result batched = insert(BATCH_SIZE, BENCHMARK_ROWS, rowFactory);
+
+        log.info("{}: unbatched {} statements, {} rows/s | batched {} statements, {} rows/s",
+                label, unbatched.statements(), Math.round(unbatched.rowsPerSecond()),
+                batched.statements(), Math.round(batched.rowsPerSecond()));
+    }
+
+    private Object notification(int i) {
+        return Notification.builder()
+                .recipient(consignor)
+                .type(NotificationType.SALE_RECORDED)
+                .title("Penjualan Tercatat")
+                .message("1 Keripik terjual di Toko Test #" + i)
+                .referenceId((long) i)
+                .referenceType("SALE")
+                .read(false)
+                .build();
+    }
+
+    private Object sale(int i) {
+        return Sale.builder()
+                .consignment(consignment)
+                .quantitySold(1)
+                .totalAmount(BigDecimal.valueOf(12000))
+                .shopCommission(BigDecimal.valueOf(1200))
+                .consignorEarning(BigDecimal.valueOf(10800))
+                .soldAt(LocalDateTime.now())
+                .build();
+    }
+
+    private Result insert(int batchSize, int rows, IntFunction<Object> rowFactory) {
+        Session session = entityManager.unwrap(Session.class);
+        session.setJdbcBatchSize(batchSize);
+        statistics.clear();
+
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < rows; i++) {
+            entityManager.persist(rowFactory.apply(i));
+        }
+        entityManager.flush();
+        long elapsedNanos = System.nanoTime() - startedAt;
+
+        entityManager.clear();
+        consignor = entityManager.merge(consignor);
+        consignment = entityManager.merge(consignment);
+
+        return new Result(statistics.getPrepareStatementCount(), rows / (elapsedNanos / 1_000_000_000.0));
+    }
+
+    private record Result(long statements, double rowsPerSecond) {
+    }
+}
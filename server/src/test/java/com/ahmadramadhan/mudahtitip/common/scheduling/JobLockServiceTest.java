@@ -0,0 +1,151 @@
+package com.ahmadramadhan.mudahtitip.common.scheduling;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for JobLockService.
+ */
+@ExtendWith(MockitoExtension.class)
+class JobLockServiceTest {
+
+    private static final String JOB = "test.job";
+
+    @Mock
+    private JobLockRepository jobLockRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private JobLockService jobLockService;
+
+    @BeforeEach
+    void setUp() {
+        jobLockService = new JobLockService(jobLockRepository, transactionManager,
+                Duration.ofMinutes(10), Duration.ofMinutes(1), Duration.ofSeconds(30), "node-1");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobLockService.shutdown();
+    }
+
+    @Test
+    @DisplayName("should run job and release lease when lease is free")
+    void runExclusive_acquired_runsAndReleases() {
+        // given
+        when(jobLockRepository.existsByName(JOB)).thenReturn(true);
+        when(jobLockRepository.acquire(eq(JOB), startsWith("node-1:"), any(), any())).thenReturn(1);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        // when
+        boolean result = jobLockService.runExclusive(JOB, () -> ran.set(true));
+
+        // then
+        assertThat(result).isTrue();
+        assertThat(ran).isTrue();
+        verify(jobLockRepository).release(eq(JOB), startsWith("node-1:"), any(), any());
+    }
+
+    @Test
+    @DisplayName("should keep lease for the minimum hold after a short run")
+    void runExclusive_shortRun_keepsMinimumHold() {
+        // given
+        when(jobLockRepository.existsByName(JOB)).thenReturn(true);
+        ArgumentCaptor<LocalDateTime> startedAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        when(jobLockRepository.acquire(eq(JOB), anyString(), startedAt.capture(), any())).thenReturn(1);
+
+        // when
+        jobLockService.runExclusive(JOB, () -> {
+        });
+
+        // then
+        ArgumentCaptor<LocalDateTime> releasedAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> until = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(jobLockRepository).release(eq(JOB), anyString(), releasedAt.capture(), until.capture());
+        assertThat(until.getValue()).isEqualTo(startedAt.getValue().plusSeconds(30));
+        assertThat(until.getValue()).isAfter(releasedAt.getValue());
+    }
+
+    @Test
+    @DisplayName("should end lease at release time once the minimum hold has passed")
+    void runExclusive_longRun_releasesNow() {
+        // given
+        jobLockService.shutdown();
+        jobLockService = new JobLockService(jobLockRepository, transactionManager,
+                Duration.ofMinutes(10), Duration.ofMinutes(1), Duration.ZERO, "node-1");
+        when(jobLockRepository.existsByName(JOB)).thenReturn(true);
+        when(jobLockRepository.acquire(eq(JOB), anyString(), any(), any())).thenReturn(1);
+
+        // when
+        jobLockService.runExclusive(JOB, () -> {
+        });
+
+        // then
+        ArgumentCaptor<LocalDateTime> releasedAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> until = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(jobLockRepository).release(eq(JOB), anyString(), releasedAt.capture(), until.capture());
+        assertThat(until.getValue()).isEqualTo(releasedAt.getValue());
+    }
+
+    @Test
+    @DisplayName("should skip job when another instance holds the lease")
+    void runExclusive_heldElsewhere_skips() {
+        // given
+        when(jobLockRepository.existsByName(JOB)).thenReturn(true);
+        when(jobLockRepository.acquire(eq(JOB), anyString(), any(), any())).thenReturn(0);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        // when
+        boolean result = jobLockService.runExclusive(JOB, () -> ran.set(true));
+
+        // then
+        assertThat(result).isFalse();
+        assertThat(ran).isFalse();
+        verify(jobLockRepository, never()).release(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("should release lease when job fails")
+    void runExclusive_jobFails_releases() {
+        // given
+        when(jobLockRepository.existsByName(JOB)).thenReturn(true);
+        when(jobLockRepository.acquire(eq(JOB), anyString(), any(), any())).thenReturn(1);
+
+        // when/then
+        assertThatThrownBy(() -> jobLockService.runExclusive(JOB, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+        verify(jobLockRepository).release(eq(JOB), anyString(), any(), any());
+    }
+
+    @Test
+    @DisplayName("should create lock row on first use")
+    void runExclusive_missingRow_creates() {
+        // given
+        when(jobLockRepository.existsByName(JOB)).thenReturn(false);
+        when(jobLockRepository.acquire(eq(JOB), anyString(), any(), any())).thenReturn(1);
+
+        // when
+        jobLockService.runExclusive(JOB, () -> {
+        });
+
+        // then
+        verify(jobLockRepository).save(argThat(lock -> lock.getName().equals(JOB)));
+    }
+}
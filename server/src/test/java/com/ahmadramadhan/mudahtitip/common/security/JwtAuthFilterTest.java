@@ -0,0 +1,147 @@
+package com.ahmadramadhan.mudahtitip.common.security;
+
+import com.ahmadramadhan.mudahtitip.auth.User;
+import com.ahmadramadhan.mudahtitip.auth.UserRole;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for JwtAuthFilter token handling.
+ * 
+ * The per-request cost comparison with the previous token handling, which
+ * rebuilt the key and parser and parsed the token three times, is tagged as
+ * a benchmark since the build has no JMH harness.
+ */
+@Slf4j
+class JwtAuthFilterTest {
+
+    private static final String SECRET = "mudahtitip-super-secret-key-that-is-at-least-256-bits-long-for-hs256";
+    private static final int WARMUP = 30_000;
+    private static final int ITERATIONS = 20_000;
+    private static final int ROUNDS = 3;
+
+    private JwtUtil jwtUtil;
+    private PrincipalCache principalCache;
+    private JwtAuthFilter filter;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86_400_000L);
+        jwtUtil.init();
+
+        User user = User.builder()
+                .name("Consignor")
+                .email("consignor@example.com")
+                .passwordHash("hashed")
+                .role(UserRole.CONSIGNOR)
+                .build();
+        user.setId(1L);
+
+        principalCache = mock(PrincipalCache.class);
+        when(principalCache.get(1L)).thenReturn(Optional.of(user));
+
+        filter = new JwtAuthFilter(jwtUtil, principalCache, false);
+        token = jwtUtil.generateToken(user.getEmail(), user.getId(), user.getRole().name());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("should verify the token once and authenticate the cached principal")
+    void validToken_verifiedOnce() throws Exception {
+        // given
+        JwtUtil spyJwtUtil = spy(jwtUtil);
+        filter = new JwtAuthFilter(spyJwtUtil, principalCache, false);
+
+        // when
+        runFilter();
+
+        // then
+        verify(spyJwtUtil).verify(token);
+        verify(spyJwtUtil, never()).extractEmail(anyString());
+        verify(spyJwtUtil, never()).extractUserId(anyString());
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal())
+                .isInstanceOf(User.class);
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("filter cost per request")
+    void filterCostPerRequest() throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            runFilter();
+            legacyTokenHandling();
+        }
+
+        // Best of several rounds, so JIT and GC pauses do not decide the result
+        long filterNanos = Long.MAX_VALUE;
+        long legacyNanos = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                runFilter();
+            }
+            filterNanos = Math.min(filterNanos, (System.nanoTime() - start) / ITERATIONS);
+
+            start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                legacyTokenHandling();
+            }
+            legacyNanos = Math.min(legacyNanos, (System.nanoTime() - start) / ITERATIONS);
+        }
+
+        log.info("JwtAuthFilter: {} ns/request (whole filter), previous token handling alone: {} ns/request",
+                filterNanos, legacyNanos);
+    }
+
+    private void runFilter() throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/notifications/unread-count");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    }
+
+    /**
+     * extractEmail, then validateToken calling extractEmail and extractExpiration,
+     * each building a fresh key and parser.
+     */
+    private void legacyTokenHandling() {
+        String email = parse().getSubject();
+        boolean valid = parse().getSubject().equals(email) && !parse().getExpiration().before(new Date());
+        assertThat(valid).isTrue();
+    }
+
+    private Claims parse() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
@@ -0,0 +1,303 @@
+package com.ahmadramadhan.mudahtitip.consignment;
+
+import com.ahmadramadhan.mudahtitip.auth.User;
+import com.ahmadramadhan.mudahtitip.auth.UserRepository;
+import com.ahmadramadhan.mudahtitip.auth.UserRole;
+import com.ahmadramadhan.mudahtitip.consignment.dto.OwnerLowStockCount;
+import com.ahmadramadhan.mudahtitip.notification.NotificationPreference;
+import com.ahmadramadhan.mudahtitip.notification.NotificationPreferenceRepository;
+import com.ahmadramadhan.mudahtitip.product.Product;
+import com.ahmadramadhan.mudahtitip.product.ProductRepository;
+import com.ahmadramadhan.mudahtitip.shop.Shop;
+import com.ahmadramadhan.mudahtitip.shop.ShopRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for the preference-aware notification queries in ConsignmentRepository.
+ */
+@DataJpaTest
+class ConsignmentRepositoryTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 2);
+
+    @Autowired
+    private ConsignmentRepository consignmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private NotificationPreferenceRepository notificationPreferenceRepository;
+
+    private Shop shop;
+    private int users;
+
+    @BeforeEach
+    void setUp() {
+        User shopOwner = user(UserRole.SHOP_OWNER);
+        shop = shopRepository.save(Shop.builder()
+                .name("Toko Test")
+                .owner(shopOwner)
+                .build());
+    }
+
+    @Nested
+    @DisplayName("findStockAlertCandidates")
+    class FindStockAlertCandidates {
+
+        @Test
+        @DisplayName("should use the default threshold for owners without preferences")
+        void defaultPreferences_usesDefaultThreshold() {
+            // given
+            User owner = user(UserRole.CONSIGNOR);
+            Consignment atThreshold = consignment(owner, NotificationPreference.DEFAULT_LOW_STOCK_THRESHOLD, null);
+            consignment(owner, NotificationPreference.DEFAULT_LOW_STOCK_THRESHOLD + 1, null);
+            Consignment outOfStock = consignment(owner, 0, null);
+
+            // when
+            List<Consignment> result = consignmentRepository
+                    .findStockAlertCandidates(NotificationPreference.DEFAULT_LOW_STOCK_THRESHOLD);
+
+            // then
+            assertThat(result).extracting(Consignment::getId)
+                    .containsExactly(atThreshold.getId(), outOfStock.getId());
+        }
+
+        @Test
+        @DisplayName("should use the owner's own threshold")
+        void customThreshold_usesOwnerThreshold() {
+            // given
+            User owner = user(UserRole.CONSIGNOR);
+            preferences(owner, preference -> preference.setLowStockThreshold(10));
+            Consignment belowOwnThreshold = consignment(owner, 8, null);
+            consignment(owner, 11, null);
+
+            // when
+            List<Consignment> result = consignmentRepository
+                    .findStockAlertCandidates(NotificationPreference.DEFAULT_LOW_STOCK_THRESHOLD);
+
+            // then
+            assertThat(result).extracting(Consignment::getId).containsExactly(belowOwnThreshold.getId());
+        }
+
+        @Test
+        @DisplayName("should skip alert types the owner disabled")
+        void disabledPreferences_skipsAlerts() {
+            // given
+            User lowDisabled = user(UserRole.CONSIGNOR);
+            preferences(lowDisabled, preference -> preference.setStockLowEnabled(false));
+            consignment(lowDisabled, 2, null);
+            Consignment stillOut = consignment(lowDisabled, 0, null);
+
+            User outDisabled = user(UserRole.CONSIGNOR);
+            preferences(outDisabled, preference -> preference.setStockOutEnabled(false));
+            consignment(outDisabled, 0, null);
+            Consignment stillLow = consignment(outDisabled, 2, null);
+
+            // when
+            List<Consignment> result = consignmentRepository
+                    .findStockAlertCandidates(NotificationPreference.DEFAULT_LOW_STOCK_THRESHOLD);
+
+            // then
+            assertThat(result).extracting(Consignment::getId).containsExactly(stillOut.getId(), stillLow.getId());
+        }
+
+        @Test
+        @DisplayName("should skip consignments that are not active")
+        void inactiveConsignment_skipped() {
+            // given
+            User owner = user(UserRole.CONSIGNOR);
+            Consignment completed = consignment(owner, 0, null);
+            completed.setStatus(ConsignmentStatus.COMPLETED);
+            consignmentRepository.save(completed);
+
+            // when
+            List<Consignment> result = consignmentRepository
+                    .findStockAlertCandidates(NotificationPreference.DEFAULT_LOW_STOCK_THRESHOLD);
+
+            // then
+            assertThat(result).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("findExpiryReminderCandidates")
+    class FindExpiryReminderCandidates {
+
+        @Test
+        @DisplayName("should remind on exactly the default number of days before expiry")
+        void defaultPreferences_remindsOnBoundaryDay() {
+            // given
+            User owner = user(UserRole.CONSIGNOR);
+            int days = NotificationPreference.DEFAULT_EXPIRY_REMINDER_DAYS;
+            consignment(owner, 10, TODAY.plusDays(days - 1));
+            Consignment due = consignment(owner, 10, TODAY.plusDays(days));
+            consignment(owner, 10, TODAY.plusDays(days + 1));
+
+            // when
+            List<Consignment> result = findExpiryReminders(0L);
+
+            // then
+            assertThat(result).extracting(Consignment::getId).containsExactly(due.getId());
+        }
+
+        @Test
+        @DisplayName("should use the owner's own reminder days")
+        void customReminderDays_usesOwnerDays() {
+            // given
+            User owner = user(UserRole.CONSIGNOR);
+            preferences(owner, preference -> preference.setExpiryReminderDays(3));
+            Consignment due = consignment(owner, 10, TODAY.plusDays(3));
+            consignment(owner, 10, TODAY.plusDays(NotificationPreference.DEFAULT_EXPIRY_REMINDER_DAYS));
+
+            // when
+            List<Consignment> result = findExpiryReminders(0L);
+
+            // then
+            assertThat(result).extracting(Consignment::getId).containsExactly(due.getId());
+        }
+
+        @Test
+        @DisplayName("should skip owners who disabled expiry reminders")
+        void disabledPreferences_skipped() {
+            // given
+            User owner = user(UserRole.CONSIGNOR);
+            preferences(owner, preference -> preference.setExpiryRemindersEnabled(false));
+            consignment(owner, 10, TODAY.plusDays(NotificationPreference.DEFAULT_EXPIRY_REMINDER_DAYS));
+
+            // when
+            List<Consignment> result = findExpiryReminders(0L);
+
+            // then
+            assertThat(result).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should return only consignments after the given ID")
+        void afterId_continuesFromPreviousPage() {
+            // given
+            User owner = user(UserRole.CONSIGNOR);
+            LocalDate expiry = TODAY.plusDays(NotificationPreference.DEFAULT_EXPIRY_REMINDER_DAYS);
+            Consignment first = consignment(owner, 10, expiry);
+            Consignment second = consignment(owner, 10, expiry);
+
+            // when
+            List<Consignment> result = findExpiryReminders(first.getId());
+
+            // then
+            assertThat(result).extracting(Consignment::getId).containsExactly(second.getId());
+        }
+
+        private List<Consignment> findExpiryReminders(Long afterId) {
+            return consignmentRepository.findExpiryReminderCandidates(TODAY,
+                    TODAY.plusDays(NotificationPreference.MIN_EXPIRY_REMINDER_DAYS),
+                    TODAY.plusDays(NotificationPreference.MAX_EXPIRY_REMINDER_DAYS),
+                    NotificationPreference.DEFAULT_EXPIRY_REMINDER_DAYS, afterId, PageRequest.of(0, 100));
+        }
+    }
+
+    @Nested
+    @DisplayName("streamWeeklySummaryLowStock")
+    class StreamWeeklySummaryLowStock {
+
+        @Test
+        @DisplayName("should count low stock against each opted-in owner's threshold")
+        void optedIn_countsAtOrBelowThreshold() {
+            // given
+            User owner = user(UserRole.CONSIGNOR);
+            preferences(owner, preference -> {
+                preference.setWeeklySummaryEnabled(true);
+                preference.setLowStockThreshold(4);
+            });
+            consignment(owner, 0, null);
+            consignment(owner, 4, null);
+            consignment(owner, 5, null);
+
+            // when
+            List<OwnerLowStockCount> result;
+            try (Stream<OwnerLowStockCount> stream = consignmentRepository.streamWeeklySummaryLowStock()) {
+                result = stream.toList();
+            }
+
+            // then
+            assertThat(result).hasSize(1);
+            assertThat(result.get(0).getOwnerId()).isEqualTo(owner.getId());
+            assertThat(result.get(0).getLowStockCount()).isEqualTo(2L);
+        }
+
+        @Test
+        @DisplayName("should skip owners without preferences or with the summary disabled")
+        void notOptedIn_skipped() {
+            // given
+            User withoutPreferences = user(UserRole.CONSIGNOR);
+            consignment(withoutPreferences, 0, null);
+            User optedOut = user(UserRole.CONSIGNOR);
+            preferences(optedOut, preference -> preference.setWeeklySummaryEnabled(false));
+            consignment(optedOut, 0, null);
+
+            // when
+            List<OwnerLowStockCount> result;
+            try (Stream<OwnerLowStockCount> stream = consignmentRepository.streamWeeklySummaryLowStock()) {
+                result = stream.toList();
+            }
+
+            // then
+            assertThat(result).isEmpty();
+        }
+    }
+
+    // ===== Helper Methods =====
+
+    private User user(UserRole role) {
+        users++;
+        return userRepository.save(User.builder()
+                .name("User " + users)
+                .email("user-" + users + "@example.com")
+                .passwordHash("hashed")
+                .role(role)
+                .build());
+    }
+
+    private void preferences(User user, Consumer<NotificationPreference> customizer) {
+        NotificationPreference preference = NotificationPreference.createDefault(user);
+        customizer.accept(preference);
+        notificationPreferenceRepository.save(preference);
+    }
+
+    private Consignment consignment(User owner, int currentQuantity, LocalDate expiryDate) {
+        Product product = productRepository.save(Product.builder()
+                .name("Keripik")
+                .basePrice(BigDecimal.valueOf(10000))
+                .owner(owner)
+                .build());
+        return consignmentRepository.save(Consignment.builder()
+                .product(product)
+                .shop(shop)
+                .initialQuantity(20)
+                .currentQuantity(currentQuantity)
+                .sellingPrice(BigDecimal.valueOf(12000))
+                .commissionPercent(BigDecimal.TEN)
+                .expiryDate(expiryDate)
+                .build());
+    }
+}
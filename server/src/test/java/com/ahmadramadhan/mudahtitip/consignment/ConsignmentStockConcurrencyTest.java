@@ -0,0 +1,191 @@
+package com.ahmadramadhan.mudahtitip.consignment;
+
+import com.ahmadramadhan.mudahtitip.admin.PlatformMetricsSnapshot;
+import com.ahmadramadhan.mudahtitip.auth.User;
+import com.ahmadramadhan.mudahtitip.auth.UserRepository;
+import com.ahmadramadhan.mudahtitip.auth.UserRole;
+import com.ahmadramadhan.mudahtitip.common.MessageService;
+import com.ahmadramadhan.mudahtitip.product.Product;
+import com.ahmadramadhan.mudahtitip.product.ProductRepository;
+import com.ahmadramadhan.mudahtitip.shop.Shop;
+import com.ahmadramadhan.mudahtitip.shop.ShopRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Concurrency test for ConsignmentService.reduceStock.
+ * Many threads sell from one consignment at the same time; the stock must
+ * never go negative and exactly the available quantity must be sold.
+ */
+@DataJpaTest
+@Import(ConsignmentService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Slf4j
+class ConsignmentStockConcurrencyTest {
+
+    private static final int INITIAL_STOCK = 40;
+    private static final int THREADS = 8;
+    private static final int ATTEMPTS_PER_THREAD = 10;
+
+    private static final int BENCHMARK_STOCK = 200;
+    private static final int BENCHMARK_THREADS = 16;
+    private static final int BENCHMARK_ATTEMPTS_PER_THREAD = 40;
+
+    @Autowired
+    private ConsignmentService consignmentService;
+
+    @Autowired
+    private ConsignmentRepository consignmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @MockitoBean
+    private MessageService messageService;
+
+    @MockitoBean
+    private PlatformMetricsSnapshot platformMetricsSnapshot;
+
+    private Product product;
+    private Shop shop;
+
+    @BeforeEach
+    void setUp() {
+        User shopOwner = userRepository.save(User.builder()
+                .name("Shop Owner")
+                .email("owner-" + System.nanoTime() + "@example.com")
+                .passwordHash("hashed")
+                .role(UserRole.SHOP_OWNER)
+                .build());
+        User consignor = userRepository.save(User.builder()
+                .name("Consignor")
+                .email("consignor-" + System.nanoTime() + "@example.com")
+                .passwordHash("hashed")
+                .role(UserRole.CONSIGNOR)
+                .build());
+        shop = shopRepository.save(Shop.builder()
+                .name("Toko Test")
+                .owner(shopOwner)
+                .build());
+        product = productRepository.save(Product.builder()
+                .name("Keripik")
+                .basePrice(BigDecimal.valueOf(10000))
+                .owner(consignor)
+                .build());
+    }
+
+    @Test
+    @DisplayName("should never oversell under concurrent reduceStock calls")
+    void reduceStock_concurrent_neverOversells() throws Exception {
+        Long consignmentId = consignment(INITIAL_STOCK);
+
+        SellResult result = sellConcurrently(consignmentId, THREADS, ATTEMPTS_PER_THREAD);
+
+        Consignment consignment = consignmentRepository.findById(consignmentId).orElseThrow();
+        assertThat(result.sold()).isEqualTo(INITIAL_STOCK);
+        assertThat(result.rejected()).isEqualTo(THREADS * ATTEMPTS_PER_THREAD - INITIAL_STOCK);
+        assertThat(consignment.getCurrentQuantity()).isZero();
+        assertThat(consignment.getStatus()).isEqualTo(ConsignmentStatus.COMPLETED);
+    }
+
+    @Test
+    @DisplayName("should reject a sale larger than the remaining stock")
+    void reduceStock_insufficient_throws() {
+        Long consignmentId = consignment(INITIAL_STOCK);
+
+        assertThatThrownBy(() -> consignmentService.reduceStock(consignmentId, INITIAL_STOCK + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        Consignment result = consignmentRepository.findById(consignmentId).orElseThrow();
+        assertThat(result.getCurrentQuantity()).isEqualTo(INITIAL_STOCK);
+        assertThat(result.getStatus()).isEqualTo(ConsignmentStatus.ACTIVE);
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("reduceStock throughput under contention")
+    void reduceStock_throughput() throws Exception {
+        Long consignmentId = consignment(BENCHMARK_STOCK);
+
+        long startedAt = System.nanoTime();
+        SellResult result = sellConcurrently(consignmentId, BENCHMARK_THREADS, BENCHMARK_ATTEMPTS_PER_THREAD);
+        long elapsedNanos = System.nanoTime() - startedAt;
+
+        int attempts = BENCHMARK_THREADS * BENCHMARK_ATTEMPTS_PER_THREAD;
+        log.info("reduceStock: {} attempts on {} threads in {} ms ({} ops/s), sold={}, rejected={}",
+                attempts, BENCHMARK_THREADS, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                Math.round(attempts / (elapsedNanos / 1_000_000_000.0)), result.sold(), result.rejected());
+        assertThat(result.sold()).isEqualTo(BENCHMARK_STOCK);
+    }
+
+    private Long consignment(int stock) {
+        return consignmentRepository.save(Consignment.builder()
+                .product(product)
+                .shop(shop)
+                .initialQuantity(stock)
+                .currentQuantity(stock)
+                .sellingPrice(BigDecimal.valueOf(12000))
+                .commissionPercent(BigDecimal.TEN)
+                .build()).getId();
+    }
+
+    private SellResult sellConcurrently(Long consignmentId, int threads, int attemptsPerThread) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    try {
+                        consignmentService.reduceStock(consignmentId, 1);
+                        sold.incrementAndGet();
+                    } catch (IllegalArgumentException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        return new SellResult(sold.get(), rejected.get());
+    }
+
+    private record SellResult(int sold, int rejected) {
+    }
+}
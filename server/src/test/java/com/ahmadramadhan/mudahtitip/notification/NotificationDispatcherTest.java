@@ -0,0 +1,79 @@
+package com.ahmadramadhan.mudahtitip.notification;
+
+import com.ahmadramadhan.mudahtitip.common.scheduling.JobLockService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for NotificationDispatcher.
+ */
+@ExtendWith(MockitoExtension.class)
+class NotificationDispatcherTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private NotificationOutboxRepository notificationOutboxRepository;
+
+    @Mock
+    private JobLockService jobLockService;
+
+    private NotificationDispatcher notificationDispatcher;
+
+    @BeforeEach
+    void setUp() {
+        notificationDispatcher = new NotificationDispatcher(notificationService, notificationOutboxRepository,
+                jobLockService, new SimpleMeterRegistry(), 100, 100, Duration.ofMillis(200), Duration.ofMinutes(1),
+                MAX_ATTEMPTS);
+        when(jobLockService.runExclusive(eq(NotificationDispatcher.SWEEP_JOB), any())).thenAnswer(inv -> {
+            inv.<Runnable>getArgument(1).run();
+            return true;
+        });
+    }
+
+    @Nested
+    @DisplayName("sweepOutbox")
+    class SweepOutboxTests {
+
+        @Test
+        @DisplayName("should deliver the rest of a batch one by one when one entry fails")
+        void sweepOutbox_failingEntry_deliversOthers() {
+            // given
+            when(notificationOutboxRepository.findIdsToSweep(any(), eq(0L), eq(MAX_ATTEMPTS), any(Pageable.class)))
+                    .thenReturn(List.of(1L, 2L, 3L));
+            when(notificationService.deliverQueued(List.of(1L, 2L, 3L)))
+                    .thenThrow(new IllegalStateException("recipient missing"));
+            when(notificationService.deliverQueued(List.of(1L))).thenReturn(1);
+            when(notificationService.deliverQueued(List.of(2L)))
+                    .thenThrow(new IllegalStateException("recipient missing"));
+            when(notificationService.deliverQueued(List.of(3L))).thenReturn(1);
+            when(notificationOutboxRepository.findAttemptsById(2L)).thenReturn(1);
+
+            // when
+            notificationDispatcher.sweepOutbox();
+
+            // then
+            verify(notificationService).deliverQueued(List.of(1L));
+            verify(notificationService).deliverQueued(List.of(3L));
+            verify(notificationOutboxRepository).recordFailure(2L, "recipient missing");
+            verify(notificationOutboxRepository, never()).recordFailure(eq(1L), any());
+            verify(notificationOutboxRepository, never()).recordFailure(eq(3L), any());
+        }
+    }
+}
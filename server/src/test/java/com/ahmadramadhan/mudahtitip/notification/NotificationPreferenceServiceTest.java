@@ -0,0 +1,83 @@
+package com.ahmadramadhan.mudahtitip.notification;
+
+import com.ahmadramadhan.mudahtitip.auth.User;
+import com.ahmadramadhan.mudahtitip.auth.UserRepository;
+import com.ahmadramadhan.mudahtitip.auth.UserRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for NotificationPreferenceService and its cache.
+ */
+@ExtendWith(MockitoExtension.class)
+class NotificationPreferenceServiceTest {
+
+    @Mock
+    private NotificationPreferenceRepository preferenceRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private NotificationPreferenceService preferenceService;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        NotificationPreferenceCache preferenceCache = new NotificationPreferenceCache(
+                preferenceRepository, new SimpleMeterRegistry(), 100, Duration.ofMinutes(30));
+        preferenceService = new NotificationPreferenceService(preferenceRepository, userRepository, preferenceCache);
+
+        testUser = User.builder()
+                .name("Test User")
+                .email("test@example.com")
+                .role(UserRole.CONSIGNOR)
+                .build();
+        testUser.setId(1L);
+    }
+
+    @Test
+    @DisplayName("should serve defaults without writing when user has no preferences")
+    void read_noPreferences_defaultsWithoutWrite() {
+        // given
+        when(preferenceRepository.findByUserId(1L)).thenReturn(Optional.empty());
+
+        // when
+        boolean salesEnabled = preferenceService.isNotificationEnabled(1L, NotificationType.SALE_RECORDED);
+        int threshold = preferenceService.getLowStockThreshold(1L);
+
+        // then
+        assertThat(salesEnabled).isTrue();
+        assertThat(threshold).isEqualTo(NotificationPreference.DEFAULT_LOW_STOCK_THRESHOLD);
+        verify(preferenceRepository, times(1)).findByUserId(1L);
+        verify(preferenceRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("should reload preferences after an update")
+    void update_evictsCachedSnapshot() {
+        // given
+        NotificationPreference pref = NotificationPreference.createDefault(testUser);
+        when(preferenceRepository.findByUserId(1L)).thenReturn(Optional.of(pref));
+        when(preferenceRepository.save(pref)).thenReturn(pref);
+        assertThat(preferenceService.getLowStockThreshold(1L)).isEqualTo(5);
+
+        // when
+        preferenceService.updatePreferences(1L, NotificationPreferenceDto.builder().lowStockThreshold(10).build());
+
+        // then
+        assertThat(preferenceService.getLowStockThreshold(1L)).isEqualTo(10);
+    }
+}
@@ -0,0 +1,73 @@
+package com.ahmadramadhan.mudahtitip.notification;
+
+import com.ahmadramadhan.mudahtitip.auth.User;
+import com.ahmadramadhan.mudahtitip.auth.UserRepository;
+import com.ahmadramadhan.mudahtitip.auth.UserRole;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for the scheduler queries in NotificationRepository.
+ */
+@DataJpaTest
+class NotificationRepositoryTest {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Nested
+    @DisplayName("findDedupKeysSince")
+    class FindDedupKeysSince {
+
+        @Test
+        @DisplayName("should return only keys of the requested types")
+        void filtersByType() {
+            // given
+            User recipient = userRepository.save(User.builder()
+                    .name("Consignor")
+                    .email("consignor@example.com")
+                    .passwordHash("hashed")
+                    .role(UserRole.CONSIGNOR)
+                    .build());
+            LocalDate today = LocalDate.now();
+            notification(recipient, NotificationType.STOCK_LOW, today);
+            notification(recipient, NotificationType.STOCK_OUT, today);
+            notification(recipient, NotificationType.SALE_RECORDED, today);
+            notification(recipient, NotificationType.CONSIGNMENT_EXPIRING, today);
+
+            // when
+            Set<String> keys = notificationRepository.findDedupKeysSince(today.atStartOfDay(),
+                    EnumSet.of(NotificationType.STOCK_LOW, NotificationType.STOCK_OUT));
+
+            // then
+            assertThat(keys).containsExactlyInAnyOrder(
+                    Notification.dedupKey(NotificationType.STOCK_LOW, 1L, today),
+                    Notification.dedupKey(NotificationType.STOCK_OUT, 1L, today));
+        }
+
+        private void notification(User recipient, NotificationType type, LocalDate day) {
+            notificationRepository.save(Notification.builder()
+                    .recipient(recipient)
+                    .type(type)
+                    .title(type.name())
+                    .message(type.name())
+                    .referenceId(1L)
+                    .referenceType("CONSIGNMENT")
+                    .dedupKey(Notification.dedupKey(type, 1L, day))
+                    .read(false)
+                    .build());
+        }
+    }
+}
@@ -1,20 +1,26 @@
 package com.ahmadramadhan.mudahtitip.notification;
 
 import com.ahmadramadhan.mudahtitip.auth.User;
+import com.ahmadramadhan.mudahtitip.auth.UserRepository;
 import com.ahmadramadhan.mudahtitip.auth.UserRole;
+import com.ahmadramadhan.mudahtitip.consignment.ConsignmentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -30,13 +36,33 @@ class NotificationServiceTest {
     @Mock
     private NotificationRepository notificationRepository;
 
-    @InjectMocks
+    @Mock
+    private NotificationOutboxRepository notificationOutboxRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ConsignmentRepository consignmentRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private NotificationPreferenceCache preferenceCache;
+
     private NotificationService notificationService;
 
     private User testUser;
 
     @BeforeEach
     void setUp() {
+        UnreadCountCache unreadCountCache = new UnreadCountCache(
+                notificationRepository, new SimpleMeterRegistry(), 100, Duration.ofMinutes(10));
+        notificationService = new NotificationService(
+                notificationRepository, notificationOutboxRepository, userRepository, consignmentRepository,
+                eventPublisher, unreadCountCache, preferenceCache);
+
         testUser = User.builder()
                 .name("Test User")
                 .email("test@example.com")
@@ -83,40 +109,147 @@ class NotificationServiceTest {
     }
 
     @Nested
-    @DisplayName("getNotifications")
+    @DisplayName("queueNotification")
+    class QueueNotificationTests {
+
+        @Test
+        @DisplayName("should write outbox entry and announce it instead of saving a notification")
+        void queueNotification_writesOutbox() {
+            // given
+            when(notificationOutboxRepository.save(any(NotificationOutbox.class))).thenAnswer(inv -> {
+                NotificationOutbox entry = inv.getArgument(0);
+                entry.setId(7L);
+                return entry;
+            });
+
+            // when
+            notificationService.queueNotification(testUser, NotificationType.SALE_RECORDED,
+                    "Penjualan Tercatat", "2 Kopi terjual di Toko", 100L, "SALE");
+
+            // then
+            verify(notificationOutboxRepository).save(argThat(entry -> entry.getRecipientId().equals(1L)
+                    && entry.getType() == NotificationType.SALE_RECORDED));
+            verify(eventPublisher).publishEvent(new NotificationQueuedEvent(7L));
+            verifyNoInteractions(notificationRepository);
+        }
+
+        @Test
+        @DisplayName("should turn locked outbox entries into notifications and delete them")
+        void deliverQueued_createsAndDeletes() {
+            // given
+            NotificationOutbox entry = NotificationOutbox.builder()
+                    .recipientId(1L)
+                    .type(NotificationType.SALE_RECORDED)
+                    .title("Penjualan Tercatat")
+                    .message("2 Kopi terjual di Toko")
+                    .build();
+            entry.setId(7L);
+            when(notificationOutboxRepository.lockByIdIn(List.of(7L, 8L))).thenReturn(List.of(entry));
+            when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+            when(notificationRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+            // when
+            int delivered = notificationService.deliverQueued(List.of(7L, 8L));
+
+            // then
+            assertThat(delivered).isEqualTo(1);
+            verify(notificationRepository).saveAll(argThat(notifications -> notifications.iterator().next()
+                    .getRecipient().equals(testUser)));
+            verify(notificationOutboxRepository).deleteAllInBatch(List.of(entry));
+        }
+
+        @Test
+        @DisplayName("should add queued sales to an existing digest instead of creating notifications")
+        void deliverQueued_mergesIntoDigest() {
+            // given
+            String key = "SALE_RECORDED:100:2026-10-17";
+            NotificationOutbox first = saleDigestEntry(7L, key, 2);
+            NotificationOutbox second = saleDigestEntry(8L, key, 3);
+            Notification digest = createTestNotification(1L, "Penjualan Hari Ini");
+            digest.setDedupKey(key);
+            digest.setDigestQuantity(10);
+            digest.setRead(true);
+
+            when(notificationOutboxRepository.lockByIdIn(List.of(7L, 8L))).thenReturn(List.of(first, second));
+            when(notificationRepository.lockDigests(Set.of(1L), Set.of(key))).thenReturn(List.of(digest));
+            when(consignmentRepository.findWithProductAndShopByIdIn(Set.of(100L))).thenReturn(List.of());
+
+            // when
+            int delivered = notificationService.deliverQueued(List.of(7L, 8L));
+
+            // then
+            assertThat(delivered).isEqualTo(2);
+            assertThat(digest.getDigestQuantity()).isEqualTo(15);
+            assertThat(digest.getRead()).isFalse();
+            verify(notificationRepository, never()).saveAll(anyList());
+            verify(notificationOutboxRepository).deleteAllInBatch(List.of(first, second));
+        }
+
+        private NotificationOutbox saleDigestEntry(Long id, String key, int quantity) {
+            NotificationOutbox entry = NotificationOutbox.builder()
+                    .recipientId(1L)
+                    .type(NotificationType.SALE_RECORDED)
+                    .title("Penjualan Hari Ini")
+                    .message(quantity + " unit Kopi terjual di Toko hari ini")
+                    .referenceId(100L)
+                    .referenceType("CONSIGNMENT")
+                    .dedupKey(key)
+                    .quantity(quantity)
+                    .build();
+            entry.setId(id);
+            return entry;
+        }
+    }
+
+    @Nested
+    @DisplayName("getNotificationPage")
     class GetNotificationsTests {
 
         @Test
-        @DisplayName("should return notifications for user ordered by date")
-        void getNotifications_returnsOrderedList() {
+        @DisplayName("should return first page with a cursor when more notifications exist")
+        void getNotificationPage_firstPage_hasCursor() {
             // given
-            Notification notification1 = createTestNotification(1L, "First");
+            Notification notification1 = createTestNotification(3L, "Third");
             Notification notification2 = createTestNotification(2L, "Second");
-            List<Notification> notifications = Arrays.asList(notification2, notification1);
+            Notification notification3 = createTestNotification(1L, "First");
 
-            when(notificationRepository.findByRecipientIdOrderByCreatedAtDesc(1L))
-                    .thenReturn(notifications);
+            when(notificationRepository.findByRecipientIdOrderByCreatedAtDescIdDesc(eq(1L), any()))
+                    .thenReturn(Arrays.asList(notification1, notification2, notification3));
 
             // when
-            List<Notification> result = notificationService.getNotifications(1L);
+            NotificationPageResponse result = notificationService.getNotificationPage(1L, null, 2);
 
             // then
-            assertThat(result).hasSize(2);
-            verify(notificationRepository).findByRecipientIdOrderByCreatedAtDesc(1L);
+            assertThat(result.getItems()).extracting(NotificationResponse::getId).containsExactly(3L, 2L);
+            assertThat(NotificationCursor.decode(result.getNextCursor()))
+                    .isEqualTo(new NotificationCursor(notification2.getCreatedAt(), 2L));
+            verify(notificationRepository).findByRecipientIdOrderByCreatedAtDescIdDesc(1L, PageRequest.of(0, 3));
         }
 
         @Test
-        @DisplayName("should return empty list when no notifications")
-        void getNotifications_emptyList() {
+        @DisplayName("should continue after the cursor and end without a cursor")
+        void getNotificationPage_lastPage_noCursor() {
             // given
-            when(notificationRepository.findByRecipientIdOrderByCreatedAtDesc(1L))
-                    .thenReturn(List.of());
+            Notification notification = createTestNotification(1L, "First");
+            NotificationCursor cursor = new NotificationCursor(LocalDateTime.now(), 2L);
+
+            when(notificationRepository.findPageAfter(eq(1L), eq(cursor.createdAt()), eq(2L), any()))
+                    .thenReturn(List.of(notification));
 
             // when
-            List<Notification> result = notificationService.getNotifications(1L);
+            NotificationPageResponse result = notificationService.getNotificationPage(1L, cursor.encode(), 2);
 
             // then
-            assertThat(result).isEmpty();
+            assertThat(result.getItems()).hasSize(1);
+            assertThat(result.getNextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("should reject a malformed cursor")
+        void getNotificationPage_invalidCursor_fails() {
+            // when/then
+            assertThatThrownBy(() -> notificationService.getNotificationPage(1L, "not-a-cursor", 20))
+                    .isInstanceOf(IllegalArgumentException.class);
         }
     }
 
@@ -150,6 +283,29 @@ class NotificationServiceTest {
             // then
             assertThat(count).isZero();
         }
+
+        @Test
+        @DisplayName("should count in the database only once and track changes in memory")
+        void getUnreadCount_servedFromCache() {
+            // given
+            when(notificationRepository.countByRecipientIdAndReadFalse(1L)).thenReturn(2L);
+            when(notificationRepository.save(any(Notification.class))).thenAnswer(inv -> inv.getArgument(0));
+            when(notificationRepository.markAllAsReadByRecipientId(1L)).thenReturn(3);
+
+            // when
+            long initial = notificationService.getUnreadCount(1L);
+            notificationService.createNotification(testUser, NotificationType.STOCK_LOW,
+                    "Stok Menipis", "Stok produk tinggal 3 unit", 100L, "CONSIGNMENT");
+            long afterCreate = notificationService.getUnreadCount(1L);
+            notificationService.markAllAsRead(1L);
+            long afterReadAll = notificationService.getUnreadCount(1L);
+
+            // then
+            assertThat(initial).isEqualTo(2L);
+            assertThat(afterCreate).isEqualTo(3L);
+            assertThat(afterReadAll).isZero();
+            verify(notificationRepository, times(1)).countByRecipientIdAndReadFalse(1L);
+        }
     }
 
     @Nested
@@ -248,6 +404,29 @@ class NotificationServiceTest {
             // then
             assertThat(count).isZero();
         }
+
+        @Test
+        @DisplayName("should count in the database only once and track changes in memory")
+        void getUnreadCount_servedFromCache() {
+            // given
+            when(notificationRepository.countByRecipientIdAndReadFalse(1L)).thenReturn(2L);
+            when(notificationRepository.save(any(Notification.class))).thenAnswer(inv -> inv.getArgument(0));
+            when(notificationRepository.markAllAsReadByRecipientId(1L)).thenReturn(3);
+
+            // when
+            long initial = notificationService.getUnreadCount(1L);
+            notificationService.createNotification(testUser, NotificationType.STOCK_LOW,
+                    "Stok Menipis", "Stok produk tinggal 3 unit", 100L, "CONSIGNMENT");
+            long afterCreate = notificationService.getUnreadCount(1L);
+            notificationService.markAllAsRead(1L);
+            long afterReadAll = notificationService.getUnreadCount(1L);
+
+            // then
+            assertThat(initial).isEqualTo(2L);
+            assertThat(afterCreate).isEqualTo(3L);
+            assertThat(afterReadAll).isZero();
+            verify(notificationRepository, times(1)).countByRecipientIdAndReadFalse(1L);
+        }
     }
 
     // Helper method to create test notification
@@ -262,6 +441,7 @@ class NotificationServiceTest {
                 .read(false)
                 .build();
         notification.setId(id);
+        notification.setCreatedAt(LocalDateTime.now());
         return notification;
     }
 }
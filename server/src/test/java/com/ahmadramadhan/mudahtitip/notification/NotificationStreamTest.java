@@ -0,0 +1,55 @@
+package com.ahmadramadhan.mudahtitip.notification;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for NotificationStream.
+ */
+class NotificationStreamTest {
+
+    @Nested
+    @DisplayName("send")
+    class SendTests {
+
+        @Test
+        @DisplayName("should write the same payload to every stream an event is fanned out to")
+        void send_sameEventToTwoStreams() {
+            // given
+            RecordingEmitter first = new RecordingEmitter();
+            RecordingEmitter second = new RecordingEmitter();
+            NotificationStream firstStream = new NotificationStream(1L, first, 8, Runnable::run);
+            NotificationStream secondStream = new NotificationStream(1L, second, 8, Runnable::run);
+            Set<DataWithMediaType> event = NotificationStream.event(
+                    SseEmitter.event().name("notification").id("7").data("hello"));
+
+            // when
+            firstStream.send(event);
+            secondStream.send(event);
+
+            // then
+            assertThat(first.payload.toString()).isEqualTo("event:notification\nid:7\ndata:hello\n\n");
+            assertThat(second.payload.toString()).isEqualTo(first.payload.toString());
+        }
+    }
+
+    /**
+     * Emitter that records what would be written to the response.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final StringBuilder payload = new StringBuilder();
+
+        @Override
+        public void send(Set<DataWithMediaType> items) {
+            items.forEach(item -> payload.append(item.getData()));
+        }
+    }
+}
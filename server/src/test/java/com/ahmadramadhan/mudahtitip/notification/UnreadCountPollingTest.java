@@ -0,0 +1,131 @@
+package com.ahmadramadhan.mudahtitip.notification;
+
+import com.ahmadramadhan.mudahtitip.auth.User;
+import com.ahmadramadhan.mudahtitip.auth.UserRole;
+import com.ahmadramadhan.mudahtitip.common.security.JwtAuthFilter;
+import com.ahmadramadhan.mudahtitip.common.security.JwtUtil;
+import com.ahmadramadhan.mudahtitip.common.security.PrincipalCache;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for polling GET /api/v1/notifications/unread-count.
+ * 
+ * Sends requests through JwtAuthFilter and NotificationController with a
+ * warm principal cache. The cost per poll is measured by a method tagged as
+ * a benchmark.
+ */
+@Slf4j
+class UnreadCountPollingTest {
+
+    private static final String SECRET = "mudahtitip-super-secret-key-that-is-at-least-256-bits-long-for-hs256";
+    private static final int POLLS = 5;
+    private static final int BENCHMARK_WARMUP = 5_000;
+    private static final int BENCHMARK_POLLS = 5_000;
+
+    private JwtUtil jwtUtil;
+    private PrincipalCache principalCache;
+    private NotificationController controller;
+    private MockMvc mockMvc;
+    private String authHeader;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86_400_000L);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+
+        User user = User.builder()
+                .name("Consignor")
+                .email("consignor@example.com")
+                .passwordHash("hashed")
+                .role(UserRole.CONSIGNOR)
+                .build();
+        user.setId(1L);
+
+        principalCache = mock(PrincipalCache.class);
+        when(principalCache.get(1L)).thenReturn(Optional.of(user));
+
+        NotificationService notificationService = mock(NotificationService.class);
+        when(notificationService.getUnreadCount(1L)).thenReturn(3L);
+
+        controller = new NotificationController(
+                notificationService, mock(NotificationPreferenceService.class), mock(NotificationStreamService.class));
+
+        mockMvc = mockMvc(jwtUtil);
+        authHeader = "Bearer " + jwtUtil.generateToken(user.getEmail(), user.getId(), user.getRole().name());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("should verify the token once per poll")
+    void poll_verifiesTokenOnce() throws Exception {
+        // given
+        JwtUtil spyJwtUtil = spy(jwtUtil);
+        mockMvc = mockMvc(spyJwtUtil);
+
+        // when
+        for (int i = 0; i < POLLS; i++) {
+            poll();
+        }
+
+        // then
+        verify(spyJwtUtil, times(POLLS)).verify(anyString());
+        verify(spyJwtUtil, never()).extractUserId(anyString());
+        verify(spyJwtUtil, never()).extractEmail(anyString());
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("unread-count polling cost")
+    void unreadCountPollingCost() throws Exception {
+        for (int i = 0; i < BENCHMARK_WARMUP; i++) {
+            poll();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < BENCHMARK_POLLS; i++) {
+            poll();
+        }
+        long nanosPerPoll = (System.nanoTime() - start) / BENCHMARK_POLLS;
+
+        log.info("unread-count: {} ns/poll, {} polls/s on one thread",
+                nanosPerPoll, 1_000_000_000L / nanosPerPoll);
+    }
+
+    private MockMvc mockMvc(JwtUtil jwtUtil) {
+        return MockMvcBuilders.standaloneSetup(controller)
+                .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+                .addFilters(new JwtAuthFilter(jwtUtil, principalCache, false))
+                .build();
+    }
+
+    private void poll() throws Exception {
+        SecurityContextHolder.clearContext();
+        mockMvc.perform(get("/api/v1/notifications/unread-count").header("Authorization", authHeader))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(3));
+    }
+}
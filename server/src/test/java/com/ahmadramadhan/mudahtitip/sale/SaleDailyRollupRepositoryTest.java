@@ -0,0 +1,184 @@
+package com.ahmadramadhan.mudahtitip.sale;
+
+import com.ahmadramadhan.mudahtitip.auth.User;
+import com.ahmadramadhan.mudahtitip.auth.UserRepository;
+import com.ahmadramadhan.mudahtitip.auth.UserRole;
+import com.ahmadramadhan.mudahtitip.notification.NotificationPreference;
+import com.ahmadramadhan.mudahtitip.notification.NotificationPreferenceRepository;
+import com.ahmadramadhan.mudahtitip.product.Product;
+import com.ahmadramadhan.mudahtitip.product.ProductRepository;
+import com.ahmadramadhan.mudahtitip.sale.dto.OwnerProductSalesAggregate;
+import com.ahmadramadhan.mudahtitip.shop.Shop;
+import com.ahmadramadhan.mudahtitip.shop.ShopRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for the weekly summary query in SaleDailyRollupRepository.
+ */
+@DataJpaTest
+class SaleDailyRollupRepositoryTest {
+
+    private static final LocalDate WEEK_START = LocalDate.of(2026, 3, 2);
+    private static final LocalDate WEEK_END = WEEK_START.plusDays(6);
+
+    @Autowired
+    private SaleDailyRollupRepository saleDailyRollupRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private NotificationPreferenceRepository notificationPreferenceRepository;
+
+    private Shop shop;
+    private int users;
+
+    @BeforeEach
+    void setUp() {
+        shop = shopRepository.save(Shop.builder()
+                .name("Toko Test")
+                .owner(user())
+                .build());
+    }
+
+    @Nested
+    @DisplayName("streamWeeklySummarySales")
+    class StreamWeeklySummarySales {
+
+        @Test
+        @DisplayName("should sum each product within the week, top earner first")
+        void optedIn_sumsWeekByProduct() {
+            // given
+            User owner = optedInUser();
+            Product keripik = product(owner, "Keripik");
+            Product rempeyek = product(owner, "Rempeyek");
+            rollup(keripik, WEEK_START, 2, 20000);
+            rollup(keripik, WEEK_END, 1, 10000);
+            rollup(rempeyek, WEEK_START.plusDays(3), 4, 50000);
+            rollup(keripik, WEEK_START.minusDays(1), 9, 90000);
+            rollup(keripik, WEEK_END.plusDays(1), 9, 90000);
+
+            // when
+            List<OwnerProductSalesAggregate> result = streamWeek();
+
+            // then
+            assertThat(result).extracting(OwnerProductSalesAggregate::getProductName)
+                    .containsExactly("Rempeyek", "Keripik");
+            OwnerProductSalesAggregate keripikWeek = result.get(1);
+            assertThat(keripikWeek.getOwnerId()).isEqualTo(owner.getId());
+            assertThat(keripikWeek.getSalesCount()).isEqualTo(2L);
+            assertThat(keripikWeek.getItemsSold()).isEqualTo(3L);
+            assertThat(keripikWeek.getConsignorEarning()).isEqualByComparingTo("30000");
+        }
+
+        @Test
+        @DisplayName("should skip products with only empty buckets")
+        void emptyBuckets_skipped() {
+            // given
+            User owner = optedInUser();
+            Product keripik = product(owner, "Keripik");
+            rollup(keripik, WEEK_START, 1, 10000);
+            saleDailyRollupRepository.save(SaleDailyRollup.builder()
+                    .shop(shop)
+                    .product(product(owner, "Rempeyek"))
+                    .owner(owner)
+                    .saleDate(WEEK_START)
+                    .salesCount(0L)
+                    .itemsSold(0L)
+                    .totalAmount(BigDecimal.ZERO)
+                    .shopCommission(BigDecimal.ZERO)
+                    .consignorEarning(BigDecimal.ZERO)
+                    .build());
+
+            // when
+            List<OwnerProductSalesAggregate> result = streamWeek();
+
+            // then
+            assertThat(result).extracting(OwnerProductSalesAggregate::getProductName).containsExactly("Keripik");
+        }
+
+        @Test
+        @DisplayName("should skip owners without preferences or with the summary disabled")
+        void notOptedIn_skipped() {
+            // given
+            User withoutPreferences = user();
+            rollup(product(withoutPreferences, "Keripik"), WEEK_START, 1, 10000);
+            User optedOut = user();
+            notificationPreferenceRepository.save(NotificationPreference.createDefault(optedOut));
+            rollup(product(optedOut, "Keripik"), WEEK_START, 1, 10000);
+
+            // when
+            List<OwnerProductSalesAggregate> result = streamWeek();
+
+            // then
+            assertThat(result).isEmpty();
+        }
+
+        private List<OwnerProductSalesAggregate> streamWeek() {
+            try (Stream<OwnerProductSalesAggregate> stream = saleDailyRollupRepository
+                    .streamWeeklySummarySales(WEEK_START, WEEK_END)) {
+                return stream.toList();
+            }
+        }
+    }
+
+    // ===== Helper Methods =====
+
+    private User user() {
+        users++;
+        return userRepository.save(User.builder()
+                .name("User " + users)
+                .email("user-" + users + "@example.com")
+                .passwordHash("hashed")
+                .role(UserRole.CONSIGNOR)
+                .build());
+    }
+
+    private User optedInUser() {
+        User user = user();
+        NotificationPreference preference = NotificationPreference.createDefault(user);
+        preference.setWeeklySummaryEnabled(true);
+        notificationPreferenceRepository.save(preference);
+        return user;
+    }
+
+    private Product product(User owner, String name) {
+        return productRepository.save(Product.builder()
+                .name(name)
+                .basePrice(BigDecimal.valueOf(10000))
+                .owner(owner)
+                .build());
+    }
+
+    private void rollup(Product product, LocalDate saleDate, long itemsSold, long consignorEarning) {
+        saleDailyRollupRepository.save(SaleDailyRollup.builder()
+                .shop(shop)
+                .product(product)
+                .owner(product.getOwner())
+                .saleDate(saleDate)
+                .salesCount(1L)
+                .itemsSold(itemsSold)
+                .totalAmount(BigDecimal.valueOf(consignorEarning))
+                .shopCommission(BigDecimal.ZERO)
+                .consignorEarning(BigDecimal.valueOf(consignorEarning))
+                .build());
+    }
+}
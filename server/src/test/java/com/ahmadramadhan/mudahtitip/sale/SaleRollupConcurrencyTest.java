@@ -0,0 +1,179 @@
+package com.ahmadramadhan.mudahtitip.sale;
+
+import com.ahmadramadhan.mudahtitip.auth.User;
+import com.ahmadramadhan.mudahtitip.auth.UserRepository;
+import com.ahmadramadhan.mudahtitip.auth.UserRole;
+import com.ahmadramadhan.mudahtitip.consignment.Consignment;
+import com.ahmadramadhan.mudahtitip.consignment.ConsignmentRepository;
+import com.ahmadramadhan.mudahtitip.product.Product;
+import com.ahmadramadhan.mudahtitip.product.ProductRepository;
+import com.ahmadramadhan.mudahtitip.shop.Shop;
+import com.ahmadramadhan.mudahtitip.shop.ShopRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Concurrency test for SaleRollupService.recordSale.
+ * Many sales of the same product at the same shop are recorded at once on
+ * a day with no bucket yet; every sale must commit and be counted once.
+ * Runs H2 in MySQL mode for the native bucket upsert.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:rollup;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import(SaleRollupService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SaleRollupConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private SaleRollupService saleRollupService;
+
+    @Autowired
+    private SaleDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private ConsignmentRepository consignmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long consignmentId;
+
+    @BeforeEach
+    void setUp() {
+        User shopOwner = userRepository.save(User.builder()
+                .name("Shop Owner")
+                .email("owner-" + System.nanoTime() + "@example.com")
+                .passwordHash("hashed")
+                .role(UserRole.SHOP_OWNER)
+                .build());
+        User consignor = userRepository.save(User.builder()
+                .name("Consignor")
+                .email("consignor-" + System.nanoTime() + "@example.com")
+                .passwordHash("hashed")
+                .role(UserRole.CONSIGNOR)
+                .build());
+        Shop shop = shopRepository.save(Shop.builder()
+                .name("Toko Test")
+                .owner(shopOwner)
+                .build());
+        Product product = productRepository.save(Product.builder()
+                .name("Keripik")
+                .basePrice(BigDecimal.valueOf(10000))
+                .owner(consignor)
+                .build());
+
+        consignmentId = consignmentRepository.save(Consignment.builder()
+                .product(product)
+                .shop(shop)
+                .initialQuantity(1000)
+                .currentQuantity(1000)
+                .sellingPrice(BigDecimal.valueOf(12000))
+                .commissionPercent(BigDecimal.TEN)
+                .build()).getId();
+    }
+
+    @Test
+    @DisplayName("should count every concurrent first sale of a bucket without failing any")
+    void recordSale_concurrentFirstSales_allCounted() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        // A fresh day per round, so every round races to create its bucket
+        for (int round = 0; round < ROUNDS; round++) {
+            LocalDateTime soldAt = LocalDate.now().minusDays(round + 1).atTime(12, 0);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    transaction.executeWithoutResult(status -> saleRollupService.recordSale(Sale.builder()
+                            .consignment(consignmentRepository.findById(consignmentId).orElseThrow())
+                            .quantitySold(2)
+                            .totalAmount(BigDecimal.valueOf(24000))
+                            .shopCommission(BigDecimal.valueOf(2400))
+                            .consignorEarning(BigDecimal.valueOf(21600))
+                            .soldAt(soldAt)
+                            .build()));
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        }
+        executor.shutdown();
+
+        List<SaleDailyRollup> buckets = rollupRepository.findAll();
+        assertThat(buckets).hasSize(ROUNDS);
+        assertThat(buckets).allSatisfy(bucket -> {
+            assertThat(bucket.getSalesCount()).isEqualTo(THREADS);
+            assertThat(bucket.getItemsSold()).isEqualTo(THREADS * 2L);
+            assertThat(bucket.getTotalAmount()).isEqualByComparingTo(BigDecimal.valueOf(24000L * THREADS));
+        });
+    }
+
+    @Test
+    @DisplayName("should leave no bucket behind when the sale rolls back")
+    void recordSale_rolledBack_leavesNoBucket() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            saleRollupService.recordSale(Sale.builder()
+                    .consignment(consignmentRepository.findById(consignmentId).orElseThrow())
+                    .quantitySold(1)
+                    .totalAmount(BigDecimal.valueOf(12000))
+                    .shopCommission(BigDecimal.valueOf(1200))
+                    .consignorEarning(BigDecimal.valueOf(10800))
+                    .soldAt(LocalDateTime.now())
+                    .build());
+            status.setRollbackOnly();
+        });
+
+        assertThat(rollupRepository.findAll())
+                .noneMatch(bucket -> bucket.getSaleDate().equals(LocalDate.now()));
+    }
+}